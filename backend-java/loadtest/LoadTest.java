@@ -0,0 +1,545 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Dependency-free load generator for the Java backend, run straight from source (JDK 21):
+ *
+ *   java loadtest/LoadTest.java stub --port 9099 --latency-ms 300
+ *       Stand-ins for every external dependency on one port: Nominatim /search and /reverse,
+ *       OSRM /route and /table, and the solver's /solve. Latency, jitter and faults can be set
+ *       for all of them or per service (prefix nominatim-, osrm- or solver-):
+ *         --latency-ms 300 --jitter-ms 50   fixed delay plus uniform jitter
+ *         --error-rate 0.02                 fraction answered with --error-status (default 500)
+ *         --stall-rate 0.01 --stall-ms 30000  fraction held far past any client deadline
+ *       e.g. --osrm-latency-ms 20 --solver-latency-ms 3000 --nominatim-error-rate 0.1
+ *
+ *   java loadtest/LoadTest.java run --base-url http://localhost:8080 --concurrency 400 --duration 20 --warmup 10
+ *       Registers a throwaway dispatcher, then has every client create orders by address
+ *       (one geocoding call each) in a closed loop and reports throughput and latency.
+ *
+ *   java loadtest/LoadTest.java mix --base-url http://localhost:8080 --concurrency 50 --duration 60 --warmup 10 \
+ *        --drivers 20 --orders 200 --mix driver-poll=60,deliver=10,create-order=25,optimize=5 --think-ms 0
+ *       Seeds one organization (vehicles, drivers with accounts, orders, a first optimize), then
+ *       has every client run a weighted mix of driver route polls, deliveries, order creation and
+ *       optimize, and reports throughput and latency per operation. 409s from concurrent
+ *       optimizes are counted as conflicts, and 429s from the per-organization rate limits as
+ *       throttled, rather than as failures.
+ *
+ * loadtest/run-mix.sh starts the stub and the backend wired to it and runs a mix.
+ */
+public class LoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-fA-F-]{36})\"");
+    private static final Pattern STOP = Pattern.compile(
+            "\"id\"\\s*:\\s*\"([0-9a-fA-F-]{36})\"[^{}]*?\"status\"\\s*:\\s*\"(\\w+)\"");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: LoadTest (stub|run|mix) [--option value ...]");
+            System.exit(2);
+        }
+        Map<String, String> options = parseOptions(args);
+        switch (args[0]) {
+            case "stub" -> stub(options);
+            case "run" -> run(
+                    options.getOrDefault("base-url", "http://localhost:8080"),
+                    Integer.parseInt(options.getOrDefault("concurrency", "400")),
+                    Integer.parseInt(options.getOrDefault("duration", "20")),
+                    Integer.parseInt(options.getOrDefault("warmup", "10")),
+                    options.getOrDefault("label", "run")
+            );
+            case "mix" -> mix(options);
+            default -> {
+                System.err.println("unknown mode " + args[0]);
+                System.exit(2);
+            }
+        }
+    }
+
+    // ---- Stubs ----
+
+    private record Fault(long latencyMs, long jitterMs, double errorRate, int errorStatus, double stallRate, long stallMs) {
+
+        static Fault of(Map<String, String> options, String service) {
+            return new Fault(
+                    Long.parseLong(option(options, service, "latency-ms", "300")),
+                    Long.parseLong(option(options, service, "jitter-ms", "0")),
+                    Double.parseDouble(option(options, service, "error-rate", "0")),
+                    Integer.parseInt(option(options, service, "error-status", "500")),
+                    Double.parseDouble(option(options, service, "stall-rate", "0")),
+                    Long.parseLong(option(options, service, "stall-ms", "30000"))
+            );
+        }
+
+        private static String option(Map<String, String> options, String service, String name, String fallback) {
+            return options.getOrDefault(service + "-" + name, options.getOrDefault(name, fallback));
+        }
+
+        // Sleeps as configured; false means answer with errorStatus instead of a real response
+        boolean apply() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = random.nextDouble() < stallRate
+                    ? stallMs
+                    : latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return random.nextDouble() >= errorRate;
+        }
+
+        @Override
+        public String toString() {
+            return latencyMs + "ms+" + jitterMs + "ms jitter, errors " + errorRate + " (" + errorStatus + "), stalls "
+                    + stallRate + " (" + stallMs + "ms)";
+        }
+    }
+
+    private static void stub(Map<String, String> options) throws IOException {
+        // The JDK server leaves Nagle on by default, which adds ~40 ms to small responses
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        int port = Integer.parseInt(options.getOrDefault("port", "9099"));
+        Fault nominatim = Fault.of(options, "nominatim");
+        Fault osrm = Fault.of(options, "osrm");
+        Fault solver = Fault.of(options, "solver");
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/search", exchange -> respond(exchange, nominatim, () ->
+                "[{\"lat\":\"" + (40.6 + ThreadLocalRandom.current().nextDouble() * 0.2)
+                        + "\",\"lon\":\"" + (-74.05 + ThreadLocalRandom.current().nextDouble() * 0.2)
+                        + "\",\"display_name\":\"1 Stub Street, New York\"}]"));
+        server.createContext("/reverse", exchange -> respond(exchange, nominatim, () ->
+                "{\"display_name\":\"1 Stub Street, New York\"}"));
+        server.createContext("/route/v1/", exchange -> respond(exchange, osrm, () ->
+                "{\"code\":\"Ok\",\"routes\":[{\"duration\":" + (120 + ThreadLocalRandom.current().nextInt(780))
+                        + ",\"distance\":" + (500 + ThreadLocalRandom.current().nextInt(9500)) + "}]}"));
+        server.createContext("/table/v1/", exchange -> respond(exchange, osrm, () -> osrmTable(exchange.getRequestURI().getPath())));
+        server.createContext("/solve", exchange -> {
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            respond(exchange, solver, () -> solve(request));
+        });
+        server.start();
+        System.out.println("stubs listening on " + port);
+        System.out.println("  nominatim /search /reverse: " + nominatim);
+        System.out.println("  osrm /route /table:         " + osrm);
+        System.out.println("  solver /solve:              " + solver);
+    }
+
+    private static void respond(HttpExchange exchange, Fault fault, java.util.function.Supplier<String> body) throws IOException {
+        try (exchange) {
+            boolean ok = fault.apply();
+            byte[] bytes = (ok ? body.get() : "{\"error\":\"injected\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(ok ? 200 : fault.errorStatus(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    // /table/v1/driving/lon,lat;lon,lat;... -> square duration matrix
+    private static String osrmTable(String path) {
+        String coordinates = path.substring(path.lastIndexOf('/') + 1);
+        int size = coordinates.isEmpty() ? 0 : coordinates.split(";").length;
+        StringBuilder json = new StringBuilder("{\"code\":\"Ok\",\"durations\":[");
+        for (int i = 0; i < size; i++) {
+            json.append(i == 0 ? "[" : ",[");
+            for (int j = 0; j < size; j++) {
+                json.append(j == 0 ? "" : ",").append(i == j ? 0 : 60 + (i * 31 + j * 17) % 900);
+            }
+            json.append(']');
+        }
+        return json.append("]}").toString();
+    }
+
+    // Deals the orders out to the vehicles round-robin, echoing each order back as a stop
+    private static String solve(String request) {
+        int vehiclesAt = request.indexOf("\"vehicles\"");
+        String ordersPart = vehiclesAt < 0 ? request : request.substring(0, vehiclesAt);
+        String vehiclesPart = vehiclesAt < 0 ? "" : request.substring(vehiclesAt);
+        List<String> orders = ids(ordersPart);
+        List<String> vehicles = ids(vehiclesPart);
+        if (vehicles.isEmpty()) {
+            return "{\"routes\":[]}";
+        }
+        List<List<String>> stops = new ArrayList<>();
+        vehicles.forEach(vehicle -> stops.add(new ArrayList<>()));
+        for (int i = 0; i < orders.size(); i++) {
+            stops.get(i % vehicles.size()).add(orders.get(i));
+        }
+        StringBuilder json = new StringBuilder("{\"routes\":[");
+        for (int v = 0; v < vehicles.size(); v++) {
+            json.append(v == 0 ? "" : ",").append("{\"vehicleId\":\"").append(vehicles.get(v)).append("\",\"stops\":[");
+            List<String> route = stops.get(v);
+            for (int s = 0; s < route.size(); s++) {
+                json.append(s == 0 ? "" : ",").append("{\"id\":\"").append(route.get(s)).append("\"}");
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static List<String> ids(String json) {
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(json);
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    // ---- Order creation only ----
+
+    private static void run(String baseUrl, int concurrency, int durationSeconds, int warmupSeconds, String label) throws Exception {
+        HttpClient client = client();
+        String token = register(client, baseUrl, null);
+        HttpRequest createOrder = createOrderRequest(baseUrl, token);
+
+        // Same load, results discarded, so the JIT and both connection pools are warm when measuring
+        drive(client, createOrder, concurrency, warmupSeconds);
+        long started = System.nanoTime();
+        Result result = drive(client, createOrder, concurrency, durationSeconds);
+        double elapsed = (System.nanoTime() - started) / 1e9;
+
+        List<Long> all = result.latencies();
+        System.out.printf("%-10s concurrency=%d ok=%d failed=%d throughput=%.1f req/s p50=%d ms p95=%d ms p99=%d ms max=%d ms%n",
+                label, concurrency, all.size(), result.failures(), all.size() / elapsed,
+                percentile(all, 50), percentile(all, 95), percentile(all, 99), percentile(all, 100));
+    }
+
+    // Closed loop: every client sends its next request as soon as the previous one returns
+    private static Result drive(HttpClient client, HttpRequest request, int concurrency, int seconds) {
+        AtomicLong failures = new AtomicLong();
+        List<List<Long>> latencies = Collections.synchronizedList(new ArrayList<>());
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    List<Long> mine = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                                continue;
+                            }
+                            mine.add(System.nanoTime() - t0);
+                        } catch (IOException ex) {
+                            failures.incrementAndGet();
+                        } catch (InterruptedException ex) {
+                            return;
+                        }
+                    }
+                    latencies.add(mine);
+                });
+            }
+        }
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+        return new Result(all, failures.get());
+    }
+
+    private record Result(List<Long> latencies, long failures) {
+    }
+
+    // ---- Mixed dispatcher and driver traffic ----
+
+    private enum Op { DRIVER_POLL, DELIVER, CREATE_ORDER, OPTIMIZE }
+
+    private static final class OpStats {
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong conflicts = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+    }
+
+    private record Fleet(String dispatcherToken, List<String> driverTokens) {
+    }
+
+    private static void mix(Map<String, String> options) throws Exception {
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "50"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int drivers = Integer.parseInt(options.getOrDefault("drivers", "20"));
+        int orders = Integer.parseInt(options.getOrDefault("orders", "200"));
+        long thinkMs = Long.parseLong(options.getOrDefault("think-ms", "0"));
+        Map<Op, Integer> weights = parseMix(options.getOrDefault("mix", "driver-poll=60,deliver=10,create-order=25,optimize=5"));
+
+        HttpClient client = client();
+        long setupStarted = System.nanoTime();
+        Fleet fleet = seed(client, baseUrl, drivers, orders);
+        System.out.printf("seeded %d vehicles/drivers and %d orders in %.1f s%n", drivers, orders, (System.nanoTime() - setupStarted) / 1e9);
+
+        Map<Integer, ConcurrentLinkedDeque<String>> pending = new ConcurrentHashMap<>();
+        mixPhase(client, baseUrl, fleet, weights, pending, concurrency, warmup, thinkMs);
+        long started = System.nanoTime();
+        Map<Op, OpStats> stats = mixPhase(client, baseUrl, fleet, weights, pending, concurrency, duration, thinkMs);
+        double elapsed = (System.nanoTime() - started) / 1e9;
+
+        System.out.printf("mix concurrency=%d duration=%ds drivers=%d think=%dms%n", concurrency, duration, drivers, thinkMs);
+        List<Long> all = new ArrayList<>();
+        long failures = 0;
+        for (Map.Entry<Op, OpStats> entry : stats.entrySet()) {
+            List<Long> latencies = new ArrayList<>(entry.getValue().latencies);
+            Collections.sort(latencies);
+            all.addAll(latencies);
+            failures += entry.getValue().failures.get();
+            report(entry.getKey().name().toLowerCase().replace('_', '-'), latencies, entry.getValue().failures.get(),
+                    entry.getValue().conflicts.get(), entry.getValue().throttled.get(), elapsed);
+        }
+        Collections.sort(all);
+        report("total", all, failures, stats.values().stream().mapToLong(s -> s.conflicts.get()).sum(),
+                stats.values().stream().mapToLong(s -> s.throttled.get()).sum(), elapsed);
+    }
+
+    private static void report(String label, List<Long> sorted, long failures, long conflicts, long throttled, double elapsed) {
+        System.out.printf("  %-13s ok=%-7d failed=%-5d conflict=%-5d throttled=%-5d throughput=%7.1f req/s p50=%5d ms p95=%5d ms p99=%5d ms max=%5d ms%n",
+                label, sorted.size(), failures, conflicts, throttled, sorted.size() / elapsed,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), percentile(sorted, 100));
+    }
+
+    private static Map<Op, OpStats> mixPhase(HttpClient client, String baseUrl, Fleet fleet, Map<Op, Integer> weights,
+                                             Map<Integer, ConcurrentLinkedDeque<String>> pending, int concurrency,
+                                             int seconds, long thinkMs) {
+        Map<Op, OpStats> stats = new EnumMap<>(Op.class);
+        weights.keySet().forEach(op -> stats.put(op, new OpStats()));
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        Op op = pick(weights, random.nextInt(totalWeight));
+                        int driver = random.nextInt(fleet.driverTokens().size());
+                        String orderId = null;
+                        if (op == Op.DELIVER) {
+                            orderId = pending.computeIfAbsent(driver, d -> new ConcurrentLinkedDeque<>()).pollFirst();
+                            if (orderId == null) {
+                                // Nothing known to deliver yet; a driver would refresh their route
+                                op = Op.DRIVER_POLL;
+                            }
+                        }
+                        OpStats opStats = stats.computeIfAbsent(op, o -> new OpStats());
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = client.send(
+                                    request(op, baseUrl, fleet, driver, orderId), HttpResponse.BodyHandlers.ofString());
+                            long elapsed = System.nanoTime() - t0;
+                            int status = response.statusCode();
+                            if (status == 409) {
+                                opStats.conflicts.incrementAndGet();
+                            } else if (status == 429) {
+                                opStats.throttled.incrementAndGet();
+                            } else if (status / 100 != 2) {
+                                opStats.failures.incrementAndGet();
+                            } else {
+                                opStats.latencies.add(elapsed);
+                                if (op == Op.DRIVER_POLL) {
+                                    pending.put(driver, undelivered(response.body()));
+                                }
+                            }
+                            if (thinkMs > 0) {
+                                Thread.sleep(thinkMs);
+                            }
+                        } catch (IOException ex) {
+                            opStats.failures.incrementAndGet();
+                        } catch (InterruptedException ex) {
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private static HttpRequest request(Op op, String baseUrl, Fleet fleet, int driver, String orderId) {
+        return switch (op) {
+            case DRIVER_POLL -> authorized(baseUrl + "/api/driver/route", fleet.driverTokens().get(driver)).GET().build();
+            case DELIVER -> authorized(baseUrl + "/api/driver/orders/" + orderId + "/delivered", fleet.driverTokens().get(driver))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+            case CREATE_ORDER -> createOrderRequest(baseUrl, fleet.dispatcherToken());
+            case OPTIMIZE -> authorized(baseUrl + "/api/routes/optimize", fleet.dispatcherToken())
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+        };
+    }
+
+    private static ConcurrentLinkedDeque<String> undelivered(String routeJson) {
+        ConcurrentLinkedDeque<String> ids = new ConcurrentLinkedDeque<>();
+        Matcher stop = STOP.matcher(routeJson);
+        while (stop.find()) {
+            if (!"DELIVERED".equals(stop.group(2))) {
+                ids.add(stop.group(1));
+            }
+        }
+        return ids;
+    }
+
+    private static Op pick(Map<Op, Integer> weights, int roll) {
+        for (Map.Entry<Op, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("empty mix");
+    }
+
+    private static Map<Op, Integer> parseMix(String mix) {
+        Map<Op, Integer> weights = new EnumMap<>(Op.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Op.valueOf(pair[0].trim().toUpperCase().replace('-', '_')), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return weights;
+    }
+
+    // One organization: a vehicle and a driver account per driver, orders by CSV, then a first plan
+    private static Fleet seed(HttpClient client, String baseUrl, int drivers, int orders) throws Exception {
+        String dispatcher = register(client, baseUrl, null);
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<String> driverTokens = new ArrayList<>();
+        for (int i = 0; i < drivers; i++) {
+            HttpResponse<String> vehicle = send(client, authorized(baseUrl + "/api/vehicles", dispatcher)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"name\":\"Load van " + i + "\",\"capacityKg\":1000,\"startShiftMinutes\":480,"
+                                    + "\"endShiftMinutes\":1020,\"startLat\":40.7,\"startLon\":-73.95,\"address\":\"Depot\"}"))
+                    .build(), 200, 201);
+            Matcher vehicleId = ID.matcher(vehicle.body());
+            if (!vehicleId.find()) {
+                throw new IllegalStateException("vehicle without id: " + vehicle.body());
+            }
+            String email = "driver-" + run + "-" + i + "@greenlink.local";
+            send(client, authorized(baseUrl + "/api/drivers", dispatcher)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"name\":\"Load driver " + i + "\",\"email\":\"" + email + "\",\"licenseId\":\"LT-" + run + "-" + i
+                                    + "\",\"phone\":\"555-0100\",\"homeBase\":\"Depot\",\"status\":\"ACTIVE\","
+                                    + "\"assignedVehicleId\":\"" + vehicleId.group(1) + "\"}"))
+                    .build(), 200, 201);
+            driverTokens.add(register(client, baseUrl, email));
+        }
+
+        StringBuilder csv = new StringBuilder("external_ref,latitude,longitude,address,weight_kg,service_duration_min\n");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < orders; i++) {
+            csv.append("load-").append(run).append('-').append(i).append(',')
+                    .append(40.6 + random.nextDouble() * 0.2).append(',').append(-74.05 + random.nextDouble() * 0.2)
+                    .append(",Load stop ").append(i).append(',').append(1 + random.nextInt(20)).append(",5\n");
+        }
+        send(client, authorized(baseUrl + "/api/import/orders", dispatcher)
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                .build(), 200);
+        send(client, authorized(baseUrl + "/api/routes/optimize", dispatcher)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), 200);
+        return new Fleet(dispatcher, driverTokens);
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request, int... expected) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        for (int status : expected) {
+            if (response.statusCode() == status) {
+                return response;
+            }
+        }
+        throw new IllegalStateException(request.method() + " " + request.uri().getPath() + " failed: "
+                + response.statusCode() + " " + response.body());
+    }
+
+    // ---- Shared ----
+
+    private static HttpClient client() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    private static HttpRequest.Builder authorized(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60));
+    }
+
+    private static HttpRequest createOrderRequest(String baseUrl, String token) {
+        return authorized(baseUrl + "/api/orders", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"address\":\"1 Main Street\",\"weightKg\":5,\"serviceDurationMin\":5}"))
+                .build();
+    }
+
+    // A dispatcher in a fresh organization, or (with driverEmail) the account of an existing driver
+    private static String register(HttpClient client, String baseUrl, String driverEmail) throws Exception {
+        String email = driverEmail != null ? driverEmail : "loadtest-" + UUID.randomUUID() + "@greenlink.local";
+        String role = driverEmail != null ? ",\"role\":\"DRIVER\"" : "";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"loadtest\",\"name\":\"Load Test\"" + role + "}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher token = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"").matcher(response.body());
+        if (response.statusCode() != 201 || !token.find()) {
+            throw new IllegalStateException("registration failed: " + response.statusCode() + " " + response.body());
+        }
+        return token.group(1);
+    }
+
+    private static long percentile(List<Long> sortedNanos, int percentile) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(0, Math.min(index, sortedNanos.size() - 1))) / 1_000_000;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,509 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Replays solver recordings (app.solver.recorder.*) through the backend's optimize path:
+ *
+ *   java loadtest/SolverReplay.java --recordings /tmp/greenlink-solver-recordings --base-url http://localhost:8080 \
+ *        --solver-port 8001 --runs 5 --warmup 1 --latency recorded
+ *
+ * For each recording it registers a throwaway organization, imports the recorded orders and
+ * vehicles through the CSV import endpoints, then calls POST /api/routes/optimize repeatedly. The
+ * backend must point its solver at this tool (--app.solver.base-url=http://127.0.0.1:8001), which
+ * answers /solve with the recorded response, its ids mapped onto the new organization's, after the
+ * recorded solve time (--latency recorded), a fixed delay in ms, or 0. "backend" in the report is
+ * optimize time minus that delay: load, mapping, serialization, parsing and persistence.
+ * loadtest/replay-solver.sh starts the backend with the right settings and runs this.
+ */
+public class SolverReplay {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        Path recordings = Path.of(options.getOrDefault("recordings", System.getProperty("java.io.tmpdir") + "/greenlink-solver-recordings"));
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int solverPort = Integer.parseInt(options.getOrDefault("solver-port", "8001"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "1"));
+        String latency = options.getOrDefault("latency", "recorded");
+
+        List<Path> files = recordingFiles(recordings);
+        if (files.isEmpty()) {
+            System.err.println("no recordings (*.json.gz) under " + recordings);
+            System.exit(2);
+        }
+
+        // The JDK server leaves Nagle on by default, which adds ~40 ms to small responses
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        AtomicReference<Replay> current = new AtomicReference<>();
+        HttpServer solver = HttpServer.create(new InetSocketAddress("127.0.0.1", solverPort), 64);
+        solver.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        solver.createContext("/solve", exchange -> solve(exchange, current.get()));
+        solver.start();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        try {
+            for (Path file : files) {
+                Map<String, Object> recording = asMap(Json.parse(readGzip(file)));
+                if (recording.get("response") == null) {
+                    System.out.printf("%-50s skipped (recorded solve failed: %s)%n", file.getFileName(), recording.get("error"));
+                    continue;
+                }
+                long delayMs = "recorded".equals(latency)
+                        ? ((Number) recording.get("solveMs")).longValue()
+                        : Long.parseLong(latency);
+                Replay replay = new Replay(asMap(recording.get("request")), asMap(recording.get("response")), delayMs);
+                current.set(replay);
+                replay(client, baseUrl, file, replay, runs, warmup, ((Number) recording.get("solveMs")).longValue());
+            }
+        } finally {
+            solver.stop(0);
+        }
+    }
+
+    private static void replay(HttpClient client, String baseUrl, Path file, Replay replay, int runs, int warmup,
+                               long recordedSolveMs) throws Exception {
+        List<Object> orders = asList(replay.request().get("orders"));
+        List<Object> vehicles = asList(replay.request().get("vehicles"));
+        String token = register(client, baseUrl);
+        importCsv(client, baseUrl, token, "/api/import/vehicles", vehiclesCsv(vehicles), vehicles.size());
+        importCsv(client, baseUrl, token, "/api/import/orders", ordersCsv(orders), orders.size());
+
+        HttpRequest optimize = HttpRequest.newBuilder(URI.create(baseUrl + "/api/routes/optimize"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofMinutes(10))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        List<Long> millis = new ArrayList<>();
+        for (int i = 0; i < warmup + runs; i++) {
+            long started = System.nanoTime();
+            HttpResponse<String> response = client.send(optimize, HttpResponse.BodyHandlers.ofString());
+            long elapsed = (System.nanoTime() - started) / 1_000_000;
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("optimize failed for " + file.getFileName() + ": "
+                        + response.statusCode() + " " + response.body());
+            }
+            if (i >= warmup) {
+                millis.add(elapsed);
+            }
+        }
+        Collections.sort(millis);
+        long p50 = percentile(millis, 50);
+        System.out.printf("%-50s orders=%d vehicles=%d recorded_solve=%d ms stub_delay=%d ms runs=%d p50=%d ms p95=%d ms max=%d ms backend_p50=%d ms%n",
+                file.getFileName(), orders.size(), vehicles.size(), recordedSolveMs, replay.delayMs(), millis.size(),
+                p50, percentile(millis, 95), percentile(millis, 100), Math.max(0, p50 - replay.delayMs()));
+    }
+
+    // The recorded response with its order and vehicle ids swapped for the ones in this request
+    private static void solve(HttpExchange exchange, Replay replay) throws IOException {
+        try (exchange) {
+            Map<String, Object> request = asMap(Json.parse(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+            if (replay == null) {
+                send(exchange, 503, "{\"detail\":\"no recording loaded\"}");
+                return;
+            }
+            Map<String, String> ids = new HashMap<>();
+            mapIds(asList(replay.request().get("orders")), asList(request.get("orders")), ids,
+                    "latitude", "longitude", "weightKg", "serviceDurationMin");
+            mapIds(asList(replay.request().get("vehicles")), asList(request.get("vehicles")), ids,
+                    "capacityKg", "startLat", "startLon");
+
+            List<Object> routes = new ArrayList<>();
+            for (Object recordedRoute : asList(replay.response().get("routes"))) {
+                Map<String, Object> route = new LinkedHashMap<>(asMap(recordedRoute));
+                route.computeIfPresent("vehicleId", (key, id) -> ids.getOrDefault(id, (String) id));
+                if (route.get("stops") != null) {
+                    List<Object> stops = new ArrayList<>();
+                    for (Object recordedStop : asList(route.get("stops"))) {
+                        Map<String, Object> stop = new LinkedHashMap<>(asMap(recordedStop));
+                        stop.computeIfPresent("id", (key, id) -> ids.getOrDefault(id, (String) id));
+                        stops.add(stop);
+                    }
+                    route.put("stops", stops);
+                }
+                routes.add(route);
+            }
+            Map<String, Object> response = new LinkedHashMap<>(replay.response());
+            response.put("routes", routes);
+
+            Thread.sleep(replay.delayMs());
+            send(exchange, 200, Json.write(response));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Imported rows get new ids, so recorded and live rows are matched on their solver-visible fields
+    private static void mapIds(List<Object> recorded, List<Object> live, Map<String, String> ids, String... fields) {
+        Map<String, Deque<String>> byKey = new HashMap<>();
+        for (Object row : recorded) {
+            byKey.computeIfAbsent(key(asMap(row), fields), k -> new ArrayDeque<>()).add((String) asMap(row).get("id"));
+        }
+        for (Object row : live) {
+            Deque<String> candidates = byKey.get(key(asMap(row), fields));
+            if (candidates != null && !candidates.isEmpty()) {
+                ids.put(candidates.poll(), (String) asMap(row).get("id"));
+            }
+        }
+    }
+
+    private static String key(Map<String, Object> row, String... fields) {
+        StringBuilder key = new StringBuilder();
+        for (String field : fields) {
+            Object value = row.get(field);
+            key.append(value instanceof Number number ? Double.toString(number.doubleValue()) : String.valueOf(value)).append('|');
+        }
+        return key.toString();
+    }
+
+    private static String vehiclesCsv(List<Object> vehicles) {
+        StringBuilder csv = new StringBuilder("external_ref,name,capacity_kg,start_shift_minutes,end_shift_minutes,start_lat,start_lon,address\n");
+        for (int i = 0; i < vehicles.size(); i++) {
+            Map<String, Object> vehicle = asMap(vehicles.get(i));
+            csv.append("replay-v").append(i).append(",Replay vehicle ").append(i).append(',')
+                    .append(whole(vehicle.get("capacityKg"))).append(",480,1020,")
+                    .append(vehicle.get("startLat")).append(',').append(vehicle.get("startLon")).append(",\n");
+        }
+        return csv.toString();
+    }
+
+    private static String ordersCsv(List<Object> orders) {
+        StringBuilder csv = new StringBuilder("external_ref,latitude,longitude,address,weight_kg,service_duration_min\n");
+        for (int i = 0; i < orders.size(); i++) {
+            Map<String, Object> order = asMap(orders.get(i));
+            csv.append("replay-o").append(i).append(',')
+                    .append(order.get("latitude")).append(',').append(order.get("longitude")).append(",,")
+                    .append(whole(order.get("weightKg"))).append(',').append(whole(order.get("serviceDurationMin"))).append('\n');
+        }
+        return csv.toString();
+    }
+
+    // Entity columns are integers; the solver DTOs carry them as floats
+    private static long whole(Object value) {
+        return Math.round(((Number) value).doubleValue());
+    }
+
+    private static void importCsv(HttpClient client, String baseUrl, String token, String path, String csv, int expected) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "text/csv")
+                .timeout(Duration.ofMinutes(5))
+                .POST(HttpRequest.BodyPublishers.ofString(csv))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("import " + path + " failed: " + response.statusCode() + " " + response.body());
+        }
+        Object inserted = asMap(Json.parse(response.body())).get("inserted");
+        if (!(inserted instanceof Number number) || number.intValue() != expected) {
+            throw new IllegalStateException("import " + path + " inserted " + inserted + " of " + expected + ": " + response.body());
+        }
+    }
+
+    private static String register(HttpClient client, String baseUrl) throws Exception {
+        String email = "replay-" + UUID.randomUUID() + "@greenlink.local";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"replay-pass\",\"name\":\"Solver Replay\"}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher token = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"").matcher(response.body());
+        if (response.statusCode() != 201 || !token.find()) {
+            throw new IllegalStateException("registration failed: " + response.statusCode() + " " + response.body());
+        }
+        return token.group(1);
+    }
+
+    private static List<Path> recordingFiles(Path recordings) throws IOException {
+        if (Files.isRegularFile(recordings)) {
+            return List.of(recordings);
+        }
+        if (!Files.isDirectory(recordings)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(recordings)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".json.gz")).sorted().toList();
+        }
+    }
+
+    private static String readGzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> asList(Object value) {
+        return value == null ? List.of() : (List<Object>) value;
+    }
+
+    private record Replay(Map<String, Object> request, Map<String, Object> response, long delayMs) {
+    }
+
+    /** Just enough JSON for recordings: objects, arrays, strings, numbers, booleans and null. */
+    static final class Json {
+
+        private final String text;
+        private int pos;
+
+        private Json(String text) {
+            this.text = text;
+        }
+
+        static Object parse(String text) {
+            Json json = new Json(text);
+            Object value = json.value();
+            json.whitespace();
+            if (json.pos != text.length()) {
+                throw json.error("trailing content");
+            }
+            return value;
+        }
+
+        static String write(Object value) {
+            StringBuilder out = new StringBuilder();
+            write(out, value);
+            return out.toString();
+        }
+
+        private static void write(StringBuilder out, Object value) {
+            if (value == null) {
+                out.append("null");
+            } else if (value instanceof String string) {
+                out.append('"');
+                for (int i = 0; i < string.length(); i++) {
+                    char c = string.charAt(i);
+                    switch (c) {
+                        case '"' -> out.append("\\\"");
+                        case '\\' -> out.append("\\\\");
+                        case '\n' -> out.append("\\n");
+                        case '\r' -> out.append("\\r");
+                        case '\t' -> out.append("\\t");
+                        default -> {
+                            if (c < 0x20) {
+                                out.append(String.format("\\u%04x", (int) c));
+                            } else {
+                                out.append(c);
+                            }
+                        }
+                    }
+                }
+                out.append('"');
+            } else if (value instanceof Map<?, ?> map) {
+                out.append('{');
+                boolean first = true;
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!first) {
+                        out.append(',');
+                    }
+                    first = false;
+                    write(out, entry.getKey().toString());
+                    out.append(':');
+                    write(out, entry.getValue());
+                }
+                out.append('}');
+            } else if (value instanceof List<?> list) {
+                out.append('[');
+                for (int i = 0; i < list.size(); i++) {
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    write(out, list.get(i));
+                }
+                out.append(']');
+            } else {
+                out.append(value);
+            }
+        }
+
+        private Object value() {
+            whitespace();
+            if (pos >= text.length()) {
+                throw error("unexpected end");
+            }
+            char c = text.charAt(pos);
+            return switch (c) {
+                case '{' -> object();
+                case '[' -> array();
+                case '"' -> string();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> number();
+            };
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            whitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                whitespace();
+                String key = string();
+                whitespace();
+                expect(':');
+                map.put(key, value());
+                whitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return map;
+                }
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            whitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                list.add(value());
+                whitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return list;
+                }
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+            while (true) {
+                if (pos >= text.length()) {
+                    throw error("unterminated string");
+                }
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return out.toString();
+                }
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'u' -> {
+                        out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> out.append(escaped);
+                }
+            }
+        }
+
+        private Number number() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty()) {
+                throw error("unexpected character");
+            }
+            boolean integral = literal.indexOf('.') < 0 && literal.indexOf('e') < 0 && literal.indexOf('E') < 0;
+            return integral ? (Number) Long.parseLong(literal) : (Number) Double.parseDouble(literal);
+        }
+
+        private Object literal(String word, Object value) {
+            if (!text.startsWith(word, pos)) {
+                throw error("expected " + word);
+            }
+            pos += word.length();
+            return value;
+        }
+
+        private void whitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("JSON " + message + " at offset " + pos);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Runs the same closed-loop order-creation load against the backend twice, once on Tomcat's
+# platform thread pool and once on virtual threads, with Nominatim replaced by a slow stub so
+# request time is dominated by blocking outbound I/O.
+#
+# Needs a reachable database (the usual SPRING_DATASOURCE_* variables) and a built jar:
+#   ./mvnw -DskipTests package && loadtest/compare-virtual-threads.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${CONCURRENCY:-400}
+DURATION=${DURATION:-20}
+LATENCY_MS=${LATENCY_MS:-300}
+STUB_PORT=${STUB_PORT:-9099}
+APP_PORT=${APP_PORT:-8080}
+JAR=$(ls target/*.jar | grep -v original | head -1)
+
+java loadtest/LoadTest.java stub --port "$STUB_PORT" --latency-ms "$LATENCY_MS" &
+STUB_PID=$!
+APP_PID=
+trap 'kill $STUB_PID ${APP_PID:-} 2>/dev/null || true' EXIT
+
+for mode in false true; do
+  java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+    --server.port="$APP_PORT" \
+    --spring.threads.virtual.enabled="$mode" \
+    --app.geocoding.base-url="http://127.0.0.1:$STUB_PORT" \
+    --app.archive.enabled=false \
+    --spring.jpa.show-sql=false \
+    --logging.level.org.springframework.web.servlet.handler.AbstractHandlerMethodMapping=INFO \
+    --logging.level.org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping=INFO \
+    > "target/loadtest-virtual-$mode.log" 2>&1 &
+  APP_PID=$!
+  for _ in $(seq 1 90); do
+    curl -s -o /dev/null "http://localhost:$APP_PORT/readyz" && break
+    sleep 1
+  done
+
+  label=$([ "$mode" = true ] && echo virtual || echo platform)
+  java loadtest/LoadTest.java run --base-url "http://localhost:$APP_PORT" \
+    --concurrency "$CONCURRENCY" --duration "$DURATION" --label "$label"
+
+  kill "$APP_PID"
+  wait "$APP_PID" 2>/dev/null || true
+  APP_PID=
+done
+
+if grep -q "VirtualThread" target/loadtest-virtual-true.log; then
+  echo "Pinned virtual threads were reported; see target/loadtest-virtual-true.log"
+fi
@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Replays recorded solver exchanges (app.solver.recorder.*) through optimize, with the solver
+# replaced by loadtest/SolverReplay.java answering from the recordings. Use it as a regression
+# benchmark for everything around the solver: compare backend_p50 before and after a change.
+#
+# Needs a reachable database (the usual SPRING_DATASOURCE_* variables) and a built jar:
+#   ./mvnw -DskipTests package && RECORDINGS=/path/to/recordings loadtest/replay-solver.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RECORDINGS=${RECORDINGS:-${TMPDIR:-/tmp}/greenlink-solver-recordings}
+RUNS=${RUNS:-5}
+WARMUP=${WARMUP:-1}
+LATENCY=${LATENCY:-0}
+SOLVER_PORT=${SOLVER_PORT:-8001}
+APP_PORT=${APP_PORT:-8080}
+JAR=$(ls target/*.jar | grep -v original | head -1)
+
+java -jar "$JAR" \
+  --server.port="$APP_PORT" \
+  --app.solver.base-url="http://127.0.0.1:$SOLVER_PORT" \
+  --app.solver.recorder.enabled=false \
+  --app.archive.enabled=false \
+  --spring.jpa.show-sql=false \
+  --logging.level.com.greenlink.service.OptimizeTelemetry=DEBUG \
+  --logging.level.org.springframework.web.servlet.handler.AbstractHandlerMethodMapping=INFO \
+  --logging.level.org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping=INFO \
+  > target/replay-solver.log 2>&1 &
+APP_PID=$!
+trap 'kill $APP_PID 2>/dev/null || true' EXIT
+for _ in $(seq 1 90); do
+  curl -s -o /dev/null "http://localhost:$APP_PORT/readyz" && break
+  sleep 1
+done
+
+java loadtest/SolverReplay.java --recordings "$RECORDINGS" --base-url "http://localhost:$APP_PORT" \
+  --solver-port "$SOLVER_PORT" --runs "$RUNS" --warmup "$WARMUP" --latency "$LATENCY"
+
+echo "Per-phase timings for each run: grep 'optimize outcome' target/replay-solver.log"
@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# End-to-end load run: the backend with OSRM, Nominatim and the solver all replaced by
+# loadtest/LoadTest.java stubs, driven by a weighted mix of driver polls, deliveries, order
+# creation and optimize. Stub latencies and faults are passed through STUB_ARGS, e.g.
+#   STUB_ARGS="--osrm-latency-ms 20 --solver-latency-ms 2000 --nominatim-error-rate 0.05" loadtest/run-mix.sh
+#
+# Needs a reachable database (the usual SPRING_DATASOURCE_* variables) and a built jar:
+#   ./mvnw -DskipTests package && loadtest/run-mix.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${CONCURRENCY:-50}
+DURATION=${DURATION:-60}
+WARMUP=${WARMUP:-10}
+DRIVERS=${DRIVERS:-20}
+ORDERS=${ORDERS:-200}
+MIX=${MIX:-driver-poll=60,deliver=10,create-order=25,optimize=5}
+THINK_MS=${THINK_MS:-0}
+STUB_ARGS=${STUB_ARGS:---nominatim-latency-ms 150 --osrm-latency-ms 15 --solver-latency-ms 500 --jitter-ms 20}
+STUB_PORT=${STUB_PORT:-9099}
+APP_PORT=${APP_PORT:-8080}
+JAR=$(ls target/*.jar | grep -v original | head -1)
+
+# shellcheck disable=SC2086
+java loadtest/LoadTest.java stub --port "$STUB_PORT" $STUB_ARGS &
+STUB_PID=$!
+APP_PID=
+trap 'kill $STUB_PID ${APP_PID:-} 2>/dev/null || true' EXIT
+
+# Seeding registers one account per driver from a single address, so the per-IP login throttle
+# is lifted for the run. The whole mix is one organization, so its rate limits are off unless
+# RATE_LIMIT=true (429s are then reported as throttled).
+java -jar "$JAR" \
+  --server.port="$APP_PORT" \
+  --app.geocoding.base-url="http://127.0.0.1:$STUB_PORT" \
+  --app.osrm.base-url="http://127.0.0.1:$STUB_PORT" \
+  --app.solver.base-url="http://127.0.0.1:$STUB_PORT" \
+  --app.security.login-throttle.per-ip.capacity=100000 \
+  --app.rate-limit.enabled="${RATE_LIMIT:-false}" \
+  --app.solver.recorder.enabled=false \
+  --app.archive.enabled=false \
+  --spring.jpa.show-sql=false \
+  --logging.level.org.springframework.web.servlet.handler.AbstractHandlerMethodMapping=INFO \
+  --logging.level.org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping=INFO \
+  > target/loadtest-mix.log 2>&1 &
+APP_PID=$!
+for _ in $(seq 1 90); do
+  curl -s -o /dev/null "http://localhost:$APP_PORT/readyz" && break
+  sleep 1
+done
+
+java loadtest/LoadTest.java mix --base-url "http://localhost:$APP_PORT" \
+  --concurrency "$CONCURRENCY" --duration "$DURATION" --warmup "$WARMUP" \
+  --drivers "$DRIVERS" --orders "$ORDERS" --mix "$MIX" --think-ms "$THINK_MS"
+
+echo "Backend log: target/loadtest-mix.log"
@@ -0,0 +1,117 @@
+#!/usr/bin/env bash
+# Startup-time benchmark. Starts the backend RUNS times in each mode and reports the JVM uptime
+# at which Spring logged "Started" (median and best):
+#   jar        plain fat jar
+#   extracted  jar extracted with -Djarmode=tools (the layout CDS needs)
+#   aot        extracted + -Dspring.aot.enabled=true
+#   cds        extracted + AOT + an AppCDS archive recorded by a training run
+#   crac       restore from a CRaC checkpoint; only when CRAC_JAVA points at a CRaC-enabled JDK
+#              (time to first healthy response, build with AOT_PROFILES=aot,crac)
+# With MAX_STARTUP_MS set, exits 1 when the median of the last mode exceeds it (a CI gate).
+#
+# Needs a reachable database (the usual SPRING_DATASOURCE_* variables); builds the AOT jar itself:
+#   loadtest/startup-benchmark.sh
+#   MODES="cds" RUNS=10 MAX_STARTUP_MS=6000 loadtest/startup-benchmark.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+MODES=${MODES:-jar extracted aot cds${CRAC_JAVA:+ crac}}
+AOT_PROFILES=${AOT_PROFILES:-aot}
+APP_PORT=${APP_PORT:-8080}
+MVN=${MVN:-mvn}
+JAVA=${JAVA:-java}
+WORK=target/startup
+APP_ARGS=(--server.port="$APP_PORT" --app.archive.enabled=false --spring.jpa.show-sql=false)
+
+rm -rf "$WORK"
+mkdir -p "$WORK"
+# AOT processing boots the context at build time, so its log goes to a file
+"$MVN" -q -DskipTests -P"$AOT_PROFILES" package > "$WORK/build.log" 2>&1 || { cat "$WORK/build.log"; exit 1; }
+JAR=$(ls target/*.jar | grep -v original | head -1)
+"$JAVA" -Djarmode=tools -jar "$JAR" extract --destination "$WORK/extracted" > /dev/null
+EXTRACTED="$WORK/extracted/$(basename "$JAR")"
+
+APP_PID=
+trap 'kill ${APP_PID:-} 2>/dev/null || true' EXIT
+
+# Starts "$@", waits for the "Started" line, prints the JVM uptime it reports in ms, then stops the app
+startup_ms() {
+  local log="$WORK/run.log"
+  "$@" "${APP_ARGS[@]}" > "$log" 2>&1 &
+  APP_PID=$!
+  local seconds=
+  for _ in $(seq 1 1200); do
+    seconds=$(sed -n 's/.*Started .* (process running for \([0-9.]*\)).*/\1/p' "$log")
+    [ -n "$seconds" ] && break
+    if ! kill -0 "$APP_PID" 2>/dev/null; then
+      echo "startup failed, see $log" >&2
+      exit 1
+    fi
+    sleep 0.1
+  done
+  kill "$APP_PID"
+  wait "$APP_PID" 2>/dev/null || true
+  APP_PID=
+  awk -v s="$seconds" 'BEGIN { printf "%d\n", s * 1000 }'
+}
+
+# Restore has no "Started" line; time from launch to the first healthy response instead
+restore_ms() {
+  local started
+  started=$(date +%s%N)
+  "$CRAC_JAVA" -XX:CRaCRestoreFrom="$WORK/crac" > "$WORK/run.log" 2>&1 &
+  APP_PID=$!
+  until curl -s -o /dev/null "http://localhost:$APP_PORT/readyz"; do
+    sleep 0.02
+  done
+  echo $(( ($(date +%s%N) - started) / 1000000 ))
+  kill "$APP_PID"
+  wait "$APP_PID" 2>/dev/null || true
+  APP_PID=
+}
+
+prepare() {
+  case "$1" in
+    cds)
+      # Training run: refresh the context once, then exit and dump the classes it loaded
+      "$JAVA" -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+        -jar "$EXTRACTED" "${APP_ARGS[@]}" > "$WORK/training.log" 2>&1 || true
+      [ -f "$WORK/app.jsa" ] || { echo "CDS training failed, see $WORK/training.log" >&2; exit 1; }
+      ;;
+    crac)
+      "$CRAC_JAVA" -XX:CRaCCheckpointTo="$WORK/crac" -Dspring.aot.enabled=true -Dspring.context.checkpoint=onRefresh \
+        -jar "$EXTRACTED" "${APP_ARGS[@]}" > "$WORK/checkpoint.log" 2>&1 || true
+      [ -d "$WORK/crac" ] || { echo "CRaC checkpoint failed, see $WORK/checkpoint.log" >&2; exit 1; }
+      ;;
+  esac
+}
+
+measure() {
+  case "$1" in
+    jar) startup_ms "$JAVA" -jar "$JAR" ;;
+    extracted) startup_ms "$JAVA" -jar "$EXTRACTED" ;;
+    aot) startup_ms "$JAVA" -Dspring.aot.enabled=true -jar "$EXTRACTED" ;;
+    cds) startup_ms "$JAVA" -XX:SharedArchiveFile="$WORK/app.jsa" -Dspring.aot.enabled=true -jar "$EXTRACTED" ;;
+    crac) restore_ms ;;
+    *) echo "unknown mode $1" >&2; exit 2 ;;
+  esac
+}
+
+median=0
+for mode in $MODES; do
+  prepare "$mode"
+  times=()
+  for _ in $(seq 1 "$RUNS"); do
+    times+=("$(measure "$mode")")
+  done
+  sorted=$(printf '%s\n' "${times[@]}" | sort -n)
+  median=$(echo "$sorted" | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+  best=$(echo "$sorted" | head -1)
+  printf '%-10s median=%6d ms best=%6d ms runs=%s\n' "$mode" "$median" "$best" "$(echo "${times[@]}" | tr ' ' ',')"
+done
+
+if [ -n "${MAX_STARTUP_MS:-}" ] && [ "$median" -gt "$MAX_STARTUP_MS" ]; then
+  echo "startup regression: median ${median} ms > ${MAX_STARTUP_MS} ms" >&2
+  exit 1
+fi
@@ -0,0 +1,49 @@
+package com.greenlink.security;
+
+import com.greenlink.model.Role;
+import com.greenlink.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling on every authenticated request: signature check and claim mapping in
+ * {@link JwtService#parse}, plus issuing a token for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService("benchmark-secret-benchmark-secret-benchmark-secret-0123456789", 86_400_000L);
+        user = new User();
+        user.setId(UUID.fromString("01934b6a-0000-7000-8000-000000000001"));
+        user.setUsername("dispatcher@greenlink.local");
+        user.setOrganizationId(UUID.fromString("01934b6a-0000-7000-8000-0000000000aa"));
+        user.setRole(Role.DISPATCHER);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public AuthenticatedUser parseAndVerify() {
+        return jwtService.parse(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(user);
+    }
+}
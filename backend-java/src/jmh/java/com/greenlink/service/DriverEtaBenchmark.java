@@ -0,0 +1,95 @@
+package com.greenlink.service;
+
+import com.greenlink.config.OutboundHttp;
+import com.greenlink.config.OutboundHttpProperties;
+import com.greenlink.model.DeliveryOrder;
+import com.greenlink.security.CurrentUserService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The driver app's remaining-time estimate, one OSRM leg per pair of stops, against a loopback
+ * OSRM stand-in that answers at once. What is left is the client-side cost per leg: pooling,
+ * request building, metrics and JSON parsing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DriverEtaBenchmark {
+
+    private static final byte[] OSRM_RESPONSE =
+            "{\"code\":\"Ok\",\"routes\":[{\"duration\":754.3,\"distance\":6120.5}]}".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"10", "50"})
+    public int stops;
+
+    private HttpServer osrm;
+    private OutboundHttp outboundHttp;
+    private DriverPortalService driverPortalService;
+    private List<DeliveryOrder> route;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Off by default in the JDK server; without it Nagle's algorithm adds ~40 ms per leg
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        osrm = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        osrm.createContext("/route/v1/driving/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, OSRM_RESPONSE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(OSRM_RESPONSE);
+            }
+        });
+        osrm.start();
+
+        CurrentUserService currentUserService = new CurrentUserService(null);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        outboundHttp = new OutboundHttp(new OutboundHttpProperties(Map.of()), meterRegistry,
+                ObservationRegistry.create(), currentUserService, false);
+        driverPortalService = new DriverPortalService(null, null, null, currentUserService, outboundHttp,
+                meterRegistry, null, "http://127.0.0.1:" + osrm.getAddress().getPort());
+
+        Random random = new Random(42);
+        route = new ArrayList<>(stops);
+        for (int i = 0; i < stops; i++) {
+            DeliveryOrder order = new DeliveryOrder();
+            order.setId(new UUID(random.nextLong(), random.nextLong()));
+            order.setLatitude(40.5 + random.nextDouble() * 0.4);
+            order.setLongitude(-74.2 + random.nextDouble() * 0.5);
+            order.setServiceDurationMin(3 + random.nextInt(10));
+            order.setStatus("ASSIGNED");
+            route.add(order);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        outboundHttp.destroy();
+        osrm.stop(0);
+    }
+
+    @Benchmark
+    public int estimateRemainingMinutes() {
+        return driverPortalService.estimateRemainingMinutes(route);
+    }
+}
@@ -0,0 +1,93 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.RouteResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU-bound parts of an optimize run around the solver call: request serialization from the
+ * columnar snapshot, response parsing and the in-process fallback plan, at a range of problem
+ * sizes. Fixtures come from a fixed seed so results line up across commits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SolverPayloadBenchmark {
+
+    private static final int ORDERS_PER_VEHICLE = 40;
+
+    @Param({"100", "1000", "5000"})
+    public int orders;
+
+    private ProblemSnapshot snapshot;
+    private byte[] responseBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        ProblemSnapshot.OrderColumns orderColumns = new ProblemSnapshot.OrderColumns();
+        for (int i = 0; i < orders; i++) {
+            orderColumns.add(new UUID(random.nextLong(), random.nextLong()),
+                    40.5 + random.nextDouble() * 0.4,
+                    -74.2 + random.nextDouble() * 0.5,
+                    1 + random.nextInt(30),
+                    3 + random.nextInt(10),
+                    0);
+        }
+        int vehicles = Math.max(1, orders / ORDERS_PER_VEHICLE);
+        ProblemSnapshot.VehicleColumns vehicleColumns = new ProblemSnapshot.VehicleColumns();
+        for (int i = 0; i < vehicles; i++) {
+            vehicleColumns.add(new UUID(random.nextLong(), random.nextLong()), 500 + random.nextInt(500), 40.7, -73.95, 0);
+        }
+        snapshot = new ProblemSnapshot(new UUID(0, 1), orderColumns, vehicleColumns);
+
+        // The solver echoes each assigned order back as a stop, split evenly across vehicles
+        List<Map<String, Object>> routes = new ArrayList<>();
+        for (int v = 0; v < vehicles; v++) {
+            List<Map<String, Object>> stops = new ArrayList<>();
+            for (int i = v; i < orders; i += vehicles) {
+                Map<String, Object> stop = new LinkedHashMap<>();
+                stop.put("id", snapshot.orderId(i).toString());
+                stop.put("latitude", snapshot.orderLat[i]);
+                stop.put("longitude", snapshot.orderLon[i]);
+                stop.put("weightKg", (double) snapshot.orderWeightKg[i]);
+                stop.put("serviceDurationMin", (double) snapshot.orderServiceMin[i]);
+                stops.add(stop);
+            }
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("vehicleId", snapshot.vehicleId(v).toString());
+            route.put("stops", stops);
+            routes.add(route);
+        }
+        responseBody = RoutingService.SOLVER_MAPPER.writeValueAsBytes(Map.of("routes", routes));
+    }
+
+    @Benchmark
+    public byte[] serializeRequest() throws Exception {
+        return RoutingService.solverRequest(snapshot);
+    }
+
+    @Benchmark
+    public RouteResponse parseResponse() throws Exception {
+        return RoutingService.SOLVER_MAPPER.readValue(responseBody, RouteResponse.class);
+    }
+
+    @Benchmark
+    public RouteResponse fallbackPlan() {
+        return FallbackPlanner.plan(snapshot);
+    }
+}
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Runs the JMH benchmarks and keeps the result per commit, so optimization work can be measured:
+#
+#   src/jmh/run.sh                      run everything, save .jmh-results/<commit>.csv
+#   src/jmh/run.sh abc1234              ... and compare with the saved run for abc1234
+#   BENCH=SolverPayload src/jmh/run.sh  only benchmarks matching the regex
+#
+# Compare runs from the same machine with nothing else busy; differences inside the error
+# column are noise.
+set -euo pipefail
+cd "$(dirname "$0")/../.."
+
+RESULTS=${JMH_RESULTS_DIR:-.jmh-results}
+BENCH=${BENCH:-}
+MVN=${MVN:-mvn}
+JMH_OPTS=${JMH_OPTS:--f 2 -wi 5 -w 1s -i 5 -r 1s}
+COMMIT=$(git rev-parse --short HEAD)
+if ! git diff --quiet HEAD -- src pom.xml; then
+  COMMIT="$COMMIT-dirty"
+fi
+mkdir -p "$RESULTS"
+OUT="$RESULTS/$COMMIT.csv"
+
+# Baseline copied first: comparing against the current commit would otherwise read the new run
+BASE=
+if [ $# -gt 0 ]; then
+  BASE=$(mktemp)
+  trap 'rm -f "$BASE"' EXIT
+  if [ -f "$RESULTS/$1.csv" ]; then cp "$RESULTS/$1.csv" "$BASE"; else cp "$1" "$BASE"; fi
+fi
+
+$MVN -q -Pbenchmarks test-compile exec:exec -Djmh.args="$BENCH $JMH_OPTS -rf csv -rff $OUT"
+echo "Saved $OUT"
+
+if [ -n "$BASE" ]; then
+  # Key on benchmark and params; score is column 5, its error column 6
+  awk -F, '
+    function key(   k, i) { k = $1; for (i = 8; i <= NF; i++) if ($i != "") k = k " " $i; return k }
+    { sub(/\r$/, "") }
+    NR == FNR { if (FNR > 1) base[key()] = $5; next }
+    FNR == 1 { printf "%-70s %14s %14s %8s\n", "benchmark [params]", "baseline", "current", "change"; next }
+    {
+      k = key(); name = k; gsub(/"/, "", name)
+      if (k in base) printf "%-70s %14.3f %14.3f %+7.1f%%\n", name, base[k], $5, ($5 - base[k]) / base[k] * 100
+      else printf "%-70s %14s %14.3f %8s\n", name, "-", $5, "new"
+    }' "$BASE" "$OUT"
+fi
@@ -0,0 +1,88 @@
+package com.greenlink.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Primary pool for writes plus optional read replicas (app.datasource.replica.urls).
+ * Read-only transactions borrow from {@link ReplicaDataSource}; everything else, including
+ * Flyway and non-transactional calls, stays on the primary.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(defaultCandidate = false)
+    public ReplicaDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Qualifier("primaryDataSource") HikariDataSource primary,
+            @Value("${app.datasource.replica.urls:}") String replicaUrls,
+            @Value("${app.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+            @Value("${app.datasource.replica.check-interval-ms:2000}") long checkIntervalMs,
+            @Value("${app.datasource.replica.maximum-pool-size:10}") int maximumPoolSize
+    ) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        List<String> urls = Arrays.stream(replicaUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(urls.get(i));
+            pool.setUsername(properties.determineUsername());
+            pool.setPassword(properties.determinePassword());
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(maximumPoolSize);
+            // A replica that is down must not block startup or stall reads for long
+            pool.setInitializationFailTimeout(-1);
+            pool.setConnectionTimeout(2000);
+            pools.add(pool);
+        }
+        return new ReplicaDataSource(primary, pools, maxLagMs, checkIntervalMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primary,
+            @Qualifier("replicaDataSource") ReplicaDataSource replicas,
+            MeterRegistry meterRegistry
+    ) {
+        if (!replicas.hasReplicas()) {
+            return primary;
+        }
+        for (ReplicaDataSource.Replica replica : replicas.getReplicas()) {
+            Gauge.builder("greenlink.datasource.replica.lag", replica, ReplicaDataSource.Replica::getLagMs)
+                    .baseUnit("milliseconds")
+                    .tag("pool", replica.getName())
+                    .register(meterRegistry);
+        }
+        // The lazy proxy sees the transaction's read-only flag before any physical connection
+        // is borrowed, which is what lets it pick the replica side.
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicas);
+        return routing;
+    }
+}
@@ -0,0 +1,37 @@
+package com.greenlink.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Configuration
+public class MetricsConfig {
+
+    public static final String ORGANIZATION_TAG = "org";
+    public static final String OTHER_ORGANIZATIONS = "other";
+
+    // Every tagged organization multiplies the series count; past the cap, newcomers share "other"
+    @Bean
+    public MeterFilter organizationTagLimit(@Value("${app.metrics.max-tagged-organizations:200}") int maxOrganizations) {
+        Set<String> tagged = ConcurrentHashMap.newKeySet();
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                String organization = id.getTag(ORGANIZATION_TAG);
+                if (organization == null || OTHER_ORGANIZATIONS.equals(organization) || tagged.contains(organization)) {
+                    return id;
+                }
+                if (tagged.size() < maxOrganizations && tagged.add(organization)) {
+                    return id;
+                }
+                return id.replaceTags(Tags.of(id.getTagsAsIterable()).and(ORGANIZATION_TAG, OTHER_ORGANIZATIONS));
+            }
+        };
+    }
+}
@@ -0,0 +1,336 @@
+package com.greenlink.config;
+
+import com.greenlink.security.CurrentUserService;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The one place outbound HTTP clients (solver, OSRM, Nominatim) are built. Each destination gets
+ * its own pool, timeouts and keep-alive from {@link OutboundHttpProperties}. Latency is recorded
+ * as http.client.requests tagged client.name=&lt;destination&gt; and org; pool usage as
+ * httpcomponents.httpclient.pool.* tagged httpclient=&lt;destination&gt;.
+ */
+@Component
+@EnableConfigurationProperties(OutboundHttpProperties.class)
+public class OutboundHttp implements DisposableBean {
+
+    // System.nanoTime() deadline for exchanges started on this thread, see withDeadline
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private final OutboundHttpProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final CurrentUserService currentUserService;
+    private final boolean virtualThreads;
+    private final ScheduledExecutorService deadlines;
+    private final List<AutoCloseable> clients = new CopyOnWriteArrayList<>();
+
+    public OutboundHttp(
+            OutboundHttpProperties properties,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry,
+            CurrentUserService currentUserService,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.currentUserService = currentUserService;
+        this.virtualThreads = virtualThreads;
+        ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "http-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most aborts are cancelled long before they are due; drop them from the queue right away
+        deadlines.setRemoveOnCancelPolicy(true);
+        this.deadlines = deadlines;
+    }
+
+    // Callers add default headers and the like, then build
+    public RestClient.Builder restClient(String destination, String baseUrl) {
+        OutboundHttpProperties.Destination settings = properties.destination(destination);
+        return RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(settings.http2() ? http2(settings) : pooled(destination, settings))
+                .observationRegistry(observationRegistry)
+                .observationConvention(new DestinationConvention(destination, currentUserService));
+    }
+
+    /**
+     * Runs work with every pooled exchange it starts aborted at deadlineNanos (a System.nanoTime()
+     * value) if the destination's total timeout has not fired first. Nested calls keep the earlier
+     * deadline. The JDK (http2) client only honours its configured total timeout.
+     */
+    public static <T> T withDeadline(long deadlineNanos, Supplier<T> work) {
+        Long outer = DEADLINE.get();
+        DEADLINE.set(outer == null ? deadlineNanos : Math.min(outer, deadlineNanos));
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(outer);
+            }
+        }
+    }
+
+    private ClientHttpRequestFactory pooled(String destination, OutboundHttpProperties.Destination settings) {
+        Timeout connect = Timeout.of(settings.connectTimeout());
+        Timeout read = Timeout.of(settings.readTimeout());
+        TimeValue keepAlive = TimeValue.of(settings.keepAlive());
+
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxConnections())
+                .setMaxConnPerRoute(settings.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(connect)
+                        .setSocketTimeout(read)
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(pool, destination).bindTo(meterRegistry);
+
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(connect)
+                        .setResponseTimeout(read)
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue hinted = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return TimeValue.isPositive(hinted) && hinted.compareTo(keepAlive) < 0 ? hinted : keepAlive;
+                })
+                .evictIdleConnections(keepAlive)
+                .evictExpiredConnections()
+                .build();
+        clients.add(client);
+        return new DeadlineRequestFactory(client, settings.totalTimeout(), deadlines);
+    }
+
+    // JDK client: negotiates HTTP/2 (ALPN over TLS) and multiplexes, so there is no pool to size
+    private ClientHttpRequestFactory http2(OutboundHttpProperties.Destination settings) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(settings.connectTimeout());
+        if (virtualThreads) {
+            builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        HttpClient client = builder.build();
+        clients.add(client);
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        // The JDK timeout runs until response headers arrive, the closest it has to a total deadline
+        factory.setReadTimeout(settings.totalTimeout());
+        return factory;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        deadlines.shutdownNow();
+        for (AutoCloseable client : clients) {
+            client.close();
+        }
+    }
+
+    /**
+     * Aborts any exchange still running after the total deadline (or the caller's, if sooner),
+     * wherever it is stuck (pool, connect, headers or a trickling body). The abort is cancelled
+     * when the response is closed or the exchange fails, so finished requests (and their bodies)
+     * do not sit in the scheduler until the timeout. Requests are created on the calling thread,
+     * so DEADLINE is visible, and postProcessHttpRequest hands its abort to createRequest.
+     */
+    private static final class DeadlineRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        private final Duration totalTimeout;
+        private final ScheduledExecutorService deadlines;
+        private final ThreadLocal<ScheduledFuture<?>> scheduled = new ThreadLocal<>();
+
+        private DeadlineRequestFactory(CloseableHttpClient client, Duration totalTimeout, ScheduledExecutorService deadlines) {
+            super(client);
+            this.totalTimeout = totalTimeout;
+            this.deadlines = deadlines;
+        }
+
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            try {
+                ClientHttpRequest request = super.createRequest(uri, httpMethod);
+                ScheduledFuture<?> abort = scheduled.get();
+                return abort == null ? request : new DeadlineRequest(request, abort);
+            } finally {
+                scheduled.remove();
+            }
+        }
+
+        @Override
+        protected void postProcessHttpRequest(ClassicHttpRequest request) {
+            if (request instanceof HttpUriRequestBase cancellable) {
+                long timeoutNanos = totalTimeout.toNanos();
+                Long deadline = DEADLINE.get();
+                if (deadline != null) {
+                    timeoutNanos = Math.max(0, Math.min(timeoutNanos, deadline - System.nanoTime()));
+                }
+                scheduled.set(deadlines.schedule(cancellable::cancel, timeoutNanos, TimeUnit.NANOSECONDS));
+            }
+        }
+    }
+
+    private static final class DeadlineRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+        private final ClientHttpRequest delegate;
+        private final ScheduledFuture<?> abort;
+
+        private DeadlineRequest(ClientHttpRequest delegate, ScheduledFuture<?> abort) {
+            this.delegate = delegate;
+            this.abort = abort;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            try {
+                return new DeadlineResponse(delegate.execute(), abort);
+            } catch (IOException | RuntimeException ex) {
+                abort.cancel(false);
+                throw ex;
+            }
+        }
+
+        @Override
+        public void setBody(Body body) {
+            ((StreamingHttpOutputMessage) delegate).setBody(body);
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return delegate.getAttributes();
+        }
+    }
+
+    private static final class DeadlineResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final ScheduledFuture<?> abort;
+
+        private DeadlineResponse(ClientHttpResponse delegate, ScheduledFuture<?> abort) {
+            this.delegate = delegate;
+            this.abort = abort;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            abort.cancel(false);
+            delegate.close();
+        }
+    }
+
+    // client.name is the host by default, which would lump the solver and OSRM together on localhost
+    private static final class DestinationConvention extends DefaultClientRequestObservationConvention {
+
+        private final KeyValue clientName;
+        private final CurrentUserService currentUserService;
+
+        private DestinationConvention(String destination, CurrentUserService currentUserService) {
+            this.clientName = KeyValue.of("client.name", destination);
+            this.currentUserService = currentUserService;
+        }
+
+        @Override
+        protected KeyValue clientName(ClientRequestObservationContext context) {
+            return clientName;
+        }
+
+        @Override
+        public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+            String organization = currentUserService.currentOrganizationId().map(UUID::toString).orElse("none");
+            return super.getLowCardinalityKeyValues(context).and(MetricsConfig.ORGANIZATION_TAG, organization);
+        }
+    }
+}
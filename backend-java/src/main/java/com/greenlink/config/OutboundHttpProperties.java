@@ -0,0 +1,57 @@
+package com.greenlink.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Per-destination settings for outbound HTTP (app.http.destinations.&lt;name&gt;.*). Anything left
+ * unset falls back to {@link #DEFAULTS}.
+ */
+@ConfigurationProperties("app.http")
+public record OutboundHttpProperties(Map<String, Destination> destinations) {
+
+    static final Destination DEFAULTS = new Destination(
+            Duration.ofSeconds(2),
+            Duration.ofSeconds(10),
+            Duration.ofSeconds(30),
+            20,
+            Duration.ofSeconds(30),
+            false
+    );
+
+    Destination destination(String name) {
+        Destination configured = destinations == null ? null : destinations.get(name);
+        return configured == null ? DEFAULTS : configured.withDefaults(DEFAULTS);
+    }
+
+    /**
+     * @param connectTimeout TCP/TLS connect, and the wait for a free pooled connection
+     * @param readTimeout    longest silence while waiting for or reading the response
+     * @param totalTimeout   hard deadline for the whole exchange, body included
+     * @param maxConnections pool size; callers beyond it queue for up to connectTimeout
+     * @param keepAlive      idle pooled connections are closed after this (or the server's hint, if shorter)
+     * @param http2          use the JDK client and negotiate HTTP/2; no pool metrics in that mode
+     */
+    public record Destination(
+            Duration connectTimeout,
+            Duration readTimeout,
+            Duration totalTimeout,
+            Integer maxConnections,
+            Duration keepAlive,
+            Boolean http2
+    ) {
+
+        Destination withDefaults(Destination defaults) {
+            return new Destination(
+                    connectTimeout == null ? defaults.connectTimeout : connectTimeout,
+                    readTimeout == null ? defaults.readTimeout : readTimeout,
+                    totalTimeout == null ? defaults.totalTimeout : totalTimeout,
+                    maxConnections == null ? defaults.maxConnections : maxConnections,
+                    keepAlive == null ? defaults.keepAlive : keepAlive,
+                    http2 == null ? defaults.http2 : http2
+            );
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.greenlink.config;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Postgres LISTEN/NOTIFY between app instances. Sends go through the pooled primary and so are
+ * transactional: a NOTIFY issued inside a transaction is delivered only if it commits. Receiving
+ * uses one dedicated connection outside the pool, held for the life of the app. Notifications
+ * sent while that connection is down are lost, so subscribers get a resync callback after every
+ * (re)connect and must assume they missed something.
+ */
+@Component
+public class PgNotifications implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PgNotifications.class);
+
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+    private static final long STOP_TIMEOUT_MS = 2 * POLL_TIMEOUT_MS;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties properties;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread listener;
+
+    public PgNotifications(JdbcTemplate jdbcTemplate, DataSourceProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    // Handlers run on the listener thread and must be quick; onResync may be null
+    public void subscribe(String channel, Consumer<String> handler, Runnable onResync) {
+        requireChannel(channel);
+        Subscription subscription = subscriptions.computeIfAbsent(channel, name -> new Subscription());
+        subscription.handlers.add(handler);
+        if (onResync != null) {
+            subscription.resyncs.add(onResync);
+        }
+    }
+
+    // Joins the caller's transaction when there is one; payloads are limited to 8000 bytes
+    public void publish(String channel, String payload) {
+        requireChannel(channel);
+        jdbcTemplate.queryForObject("select pg_notify(?, ?)::text", String.class, channel, payload);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform().name("pg-notify-listener").daemon().start(this::listen);
+    }
+
+    // Waits for the listener connection to close: a CRaC checkpoint is refused while sockets are open
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            try {
+                listener.join(STOP_TIMEOUT_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    properties.determineUrl(), properties.determineUsername(), properties.determinePassword())) {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                Set<String> listening = new HashSet<>();
+                log.info("Listening for notifications on {}", subscriptions.keySet());
+                while (running) {
+                    // Channels subscribed after start are picked up on the next poll
+                    for (Map.Entry<String, Subscription> entry : subscriptions.entrySet()) {
+                        if (listening.add(entry.getKey())) {
+                            try (Statement statement = connection.createStatement()) {
+                                statement.execute("LISTEN " + entry.getKey());
+                            }
+                            entry.getValue().resync();
+                        }
+                    }
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification);
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification listener disconnected, retrying in {} ms: {}", RECONNECT_DELAY_MS, ex.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(PGNotification notification) {
+        Subscription subscription = subscriptions.get(notification.getName());
+        if (subscription == null) {
+            return;
+        }
+        for (Consumer<String> handler : subscription.handlers) {
+            try {
+                handler.accept(notification.getParameter());
+            } catch (RuntimeException ex) {
+                log.warn("Notification handler for {} failed", notification.getName(), ex);
+            }
+        }
+    }
+
+    private static void requireChannel(String channel) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+    }
+
+    private static final class Subscription {
+        private final List<Consumer<String>> handlers = new CopyOnWriteArrayList<>();
+        private final List<Runnable> resyncs = new CopyOnWriteArrayList<>();
+
+        private void resync() {
+            for (Runnable resync : resyncs) {
+                try {
+                    resync.run();
+                } catch (RuntimeException ex) {
+                    log.warn("Notification resync failed", ex);
+                }
+            }
+        }
+    }
+}
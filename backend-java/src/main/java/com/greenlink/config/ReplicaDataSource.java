@@ -0,0 +1,189 @@
+package com.greenlink.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only side of the routing DataSource: hands out connections from replica pools whose
+ * replication lag is within bounds, round-robin, and falls back to the primary when none is.
+ * Lag is sampled in the background so the request path never queries it, against a heartbeat
+ * the check itself writes to the primary.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    // Stamped on the primary at the start of every check (V22). Multiple instances stamping the same
+    // row only makes the stamps more frequent.
+    private static final String BEAT_SQL = "update replication_heartbeat set beat_at = clock_timestamp() where id = 1";
+
+    // Age of the newest stamp the replica has replayed: overstates lag by up to check-interval, never
+    // understates it beyond clock skew between the hosts. No row means the replica is unusable.
+    private static final String LAG_SQL =
+            "select extract(epoch from clock_timestamp() - beat_at) * 1000 from replication_heartbeat where id = 1";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService lagChecker;
+
+    public ReplicaDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools, long maxLagMs, long checkIntervalMs) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLagMs = maxLagMs;
+
+        if (replicas.isEmpty()) {
+            this.lagChecker = null;
+            return;
+        }
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkLag();
+        lagChecker.scheduleWithFixedDelay(this::checkLag, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException ex) {
+                replica.markDown(ex.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials.");
+    }
+
+    void checkLag() {
+        beat();
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement()) {
+                replica.update(lagMs(statement), maxLagMs);
+            } catch (SQLException | RuntimeException ex) {
+                replica.markDown(ex.getMessage());
+            }
+        }
+    }
+
+    // A failed stamp is not fatal: replicas then age out on their own, which is the right answer
+    // when the primary cannot be written (including the first check, before Flyway has run)
+    private void beat() {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(BEAT_SQL);
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.debug("Could not stamp the replication heartbeat: {}", ex.getMessage());
+        }
+    }
+
+    private static double lagMs(Statement statement) throws SQLException {
+        // Not in recovery at all reads as zero, so a plain second instance works as a "replica" for local testing
+        try (ResultSet rs = statement.executeQuery("select pg_is_in_recovery()")) {
+            rs.next();
+            if (!rs.getBoolean(1)) {
+                return 0;
+            }
+        }
+        try (ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            if (!rs.next() || rs.getObject(1) == null) {
+                throw new SQLException("No replication heartbeat replayed");
+            }
+            return rs.getDouble(1);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    public static final class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile boolean checked;
+        private volatile double lagMs = Double.NaN;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        public String getName() {
+            return pool.getPoolName();
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public double getLagMs() {
+            return lagMs;
+        }
+
+        private void update(double lagMs, long maxLagMs) {
+            this.lagMs = lagMs;
+            boolean withinBounds = lagMs <= maxLagMs;
+            if (withinBounds != healthy || !checked) {
+                if (withinBounds) {
+                    log.info("Replica {} back in rotation (lag {} ms)", getName(), (long) lagMs);
+                } else {
+                    log.warn("Replica {} out of rotation: lag {} ms exceeds {} ms", getName(), (long) lagMs, maxLagMs);
+                }
+            }
+            this.healthy = withinBounds;
+            this.checked = true;
+        }
+
+        private void markDown(String reason) {
+            if (healthy || !checked) {
+                log.warn("Replica {} out of rotation: {}", getName(), reason);
+            }
+            this.healthy = false;
+            this.checked = true;
+            this.lagMs = Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.greenlink.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-organization request budgets for expensive endpoints (app.rate-limit.budgets.&lt;name&gt;.*).
+ * Each budget is its own token bucket per organization, shared by all of its endpoints.
+ */
+@ConfigurationProperties("app.rate-limit")
+public record TenantRateLimitProperties(boolean enabled, Map<String, Budget> budgets) {
+
+    /**
+     * @param endpoints "METHOD /path" entries; the path is an Ant pattern, e.g. "POST /api/import/**"
+     * @param capacity  burst size
+     * @param perMinute sustained rate
+     */
+    public record Budget(List<String> endpoints, int capacity, int perMinute) {
+    }
+}
@@ -7,6 +7,9 @@ import com.greenlink.model.User;
 import com.greenlink.repository.DriverRepository;
 import com.greenlink.repository.UserRepository;
 import com.greenlink.security.CurrentUserService;
+import com.greenlink.security.TokenVersionService;
+import com.greenlink.security.UserCacheInvalidator;
+import com.greenlink.service.InvalidationBus;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,11 +22,17 @@ public class AccountController {
     private final CurrentUserService currentUserService;
     private final UserRepository userRepository;
     private final DriverRepository driverRepository;
+    private final InvalidationBus invalidationBus;
+    private final TokenVersionService tokenVersionService;
+    private final UserCacheInvalidator userCacheInvalidator;
 
-    public AccountController(CurrentUserService currentUserService, UserRepository userRepository, DriverRepository driverRepository) {
+    public AccountController(CurrentUserService currentUserService, UserRepository userRepository, DriverRepository driverRepository, InvalidationBus invalidationBus, TokenVersionService tokenVersionService, UserCacheInvalidator userCacheInvalidator) {
         this.currentUserService = currentUserService;
         this.userRepository = userRepository;
         this.driverRepository = driverRepository;
+        this.invalidationBus = invalidationBus;
+        this.tokenVersionService = tokenVersionService;
+        this.userCacheInvalidator = userCacheInvalidator;
     }
 
     @GetMapping
@@ -36,12 +45,14 @@ public class AccountController {
     public AccountResponse updateAccount(@RequestBody AccountUpdateRequest request) {
         User user = currentUserService.requireUser();
         String previousEmail = user.getUsername();
+        boolean emailChanged = false;
 
         if (request.getEmail() != null && !request.getEmail().equalsIgnoreCase(user.getUsername())) {
             if (userRepository.existsByUsername(request.getEmail())) {
                 throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
             }
             user.setUsername(request.getEmail());
+            emailChanged = true;
         }
 
         if (request.getFullName() != null) {
@@ -52,7 +63,15 @@ public class AccountController {
             user.setPhoneNumber(request.getPhoneNumber());
         }
 
-        User savedUser = userRepository.save(user);
+        // Outstanding tokens name the old email, so they are revoked along with it (which also drops cached principals)
+        User savedUser;
+        if (emailChanged) {
+            savedUser = tokenVersionService.revokeAll(user, previousEmail);
+        } else {
+            savedUser = userRepository.save(user);
+            userCacheInvalidator.invalidate(savedUser);
+        }
+        invalidationBus.publish(InvalidationBus.Entity.USER, savedUser.getOrganizationId(), savedUser.getId());
 
         if (savedUser.getRole() == com.greenlink.model.Role.DRIVER) {
             driverRepository.findByEmailAndOrganizationId(previousEmail, savedUser.getOrganizationId())
@@ -70,9 +89,12 @@ public class AccountController {
                         driver.setAssignedVehicle(null);
                         driver.setLastCheckIn(null);
                         driverRepository.save(driver);
+                        invalidationBus.publish(InvalidationBus.Entity.DRIVER, driver.getOrganizationId(), driver.getId());
                     });
         }
         userRepository.delete(user);
+        userCacheInvalidator.invalidate(user);
+        invalidationBus.publish(InvalidationBus.Entity.USER, user.getOrganizationId(), user.getId());
         return ResponseEntity.noContent().build();
     }
 
@@ -100,5 +122,6 @@ public class AccountController {
             driver.setEmail(user.getUsername());
         }
         driverRepository.save(driver);
+        invalidationBus.publish(InvalidationBus.Entity.DRIVER, driver.getOrganizationId(), driver.getId());
     }
 }
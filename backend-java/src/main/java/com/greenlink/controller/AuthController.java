@@ -7,17 +7,28 @@ import com.greenlink.model.Role;
 import com.greenlink.model.User;
 import com.greenlink.repository.DriverRepository;
 import com.greenlink.repository.UserRepository;
+import com.greenlink.security.CurrentUserService;
 import com.greenlink.security.JwtService;
+import com.greenlink.security.LoginThrottle;
+import com.greenlink.security.PasswordHashingService;
+import com.greenlink.security.TokenVersionService;
+import com.greenlink.security.UserCacheInvalidator;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -27,30 +38,55 @@ public class AuthController {
     private final DriverRepository driverRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final TokenVersionService tokenVersionService;
+    private final CurrentUserService currentUserService;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final LoginThrottle loginThrottle;
+    private final PasswordHashingService passwordHashingService;
+    private final Executor taskExecutor;
 
     public AuthController(
             AuthenticationManager authenticationManager,
             UserRepository userRepository,
             DriverRepository driverRepository,
             PasswordEncoder passwordEncoder,
-            JwtService jwtService
+            JwtService jwtService,
+            TokenVersionService tokenVersionService,
+            CurrentUserService currentUserService,
+            UserCacheInvalidator userCacheInvalidator,
+            LoginThrottle loginThrottle,
+            PasswordHashingService passwordHashingService,
+            @Qualifier("applicationTaskExecutor") Executor taskExecutor
     ) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.driverRepository = driverRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.tokenVersionService = tokenVersionService;
+        this.currentUserService = currentUserService;
+        this.userCacheInvalidator = userCacheInvalidator;
+        this.loginThrottle = loginThrottle;
+        this.passwordHashingService = passwordHashingService;
+        this.taskExecutor = taskExecutor;
     }
 
+    // Hashing runs on PasswordHashingService's pool; the servlet thread is released meanwhile
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody AuthRegisterRequest request) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@RequestBody AuthRegisterRequest request, HttpServletRequest httpRequest) {
+        loginThrottle.check(httpRequest, request.getEmail());
         if (userRepository.existsByUsername(request.getEmail())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).build());
         }
 
+        return passwordHashingService.submit(() -> passwordEncoder.encode(request.getPassword()))
+                .thenApplyAsync(passwordHash -> createUser(request, passwordHash), taskExecutor);
+    }
+
+    private ResponseEntity<AuthResponse> createUser(AuthRegisterRequest request, String passwordHash) {
         User user = new User();
         user.setUsername(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHash);
         user.setRole(request.getRole() == null ? Role.DISPATCHER : request.getRole());
         user.setFullName(request.getName());
         if (user.getRole() == Role.DRIVER) {
@@ -62,31 +98,53 @@ public class AuthController {
         }
 
         User savedUser = userRepository.save(user);
+        // Another instance may still hold a deleted account under this email
+        userCacheInvalidator.invalidate(savedUser);
         String token = jwtService.generateToken(savedUser);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(new AuthResponse(token, savedUser.getRole()));
     }
 
+    // Throttled before any hashing; the credential check itself runs on the hashing pool
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthLoginRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody AuthLoginRequest request, HttpServletRequest httpRequest) {
+        loginThrottle.check(httpRequest, request.getEmail());
+        return passwordHashingService.submit(() -> {
+                    try {
+                        return authenticationManager.authenticate(
+                                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+                    } catch (AuthenticationException ex) {
+                        loginThrottle.failed(request.getEmail());
+                        throw ex;
+                    }
+                })
+                .thenApplyAsync(authentication -> issueLoginToken(request), taskExecutor);
+    }
 
+    private ResponseEntity<AuthResponse> issueLoginToken(AuthLoginRequest request) {
         User user = userRepository.findByUsername(request.getEmail()).orElseThrow();
         if (user.getRole() == Role.DRIVER) {
             var matchingDriver = driverRepository.findFirstByEmailIgnoreCase(user.getUsername());
             if (matchingDriver.isPresent() && !matchingDriver.get().getOrganizationId().equals(user.getOrganizationId())) {
+                // Older tokens still carry the previous organization claim
                 user.setOrganizationId(matchingDriver.get().getOrganizationId());
-                user = userRepository.save(user);
+                user = tokenVersionService.revokeAll(user);
             }
         }
         if (user.getOrganizationId() == null) {
             user.setOrganizationId(java.util.UUID.randomUUID());
             user = userRepository.save(user);
+            userCacheInvalidator.invalidate(user);
         }
         String token = jwtService.generateToken(user);
 
         return ResponseEntity.ok(new AuthResponse(token, user.getRole()));
     }
+
+    // Signs the caller out everywhere: every token issued so far stops being accepted
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout() {
+        tokenVersionService.revokeAll(currentUserService.requireUser());
+        return ResponseEntity.noContent().build();
+    }
 }
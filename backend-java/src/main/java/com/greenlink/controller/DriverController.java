@@ -2,8 +2,11 @@ package com.greenlink.controller;
 
 import com.greenlink.dto.DriverRequest;
 import com.greenlink.model.Driver;
+import com.greenlink.service.CollectionVersionService;
 import com.greenlink.service.DriverService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,14 +16,22 @@ import java.util.UUID;
 public class DriverController {
 
     private final DriverService driverService;
+    private final CollectionVersionService collectionVersionService;
 
-    public DriverController(DriverService driverService) {
+    public DriverController(DriverService driverService, CollectionVersionService collectionVersionService) {
         this.driverService = driverService;
+        this.collectionVersionService = collectionVersionService;
     }
 
     @GetMapping
-    public List<Driver> getAllDrivers() {
-        return driverService.getAllDrivers();
+    public ResponseEntity<List<Driver>> getAllDrivers(ServletWebRequest request) {
+        // Each driver embeds its assigned vehicle, so vehicle edits change the body too
+        return collectionVersionService.conditionalGet(
+                request,
+                () -> ResponseEntity.ok(driverService.getAllDrivers()),
+                CollectionVersionService.Collection.DRIVERS,
+                CollectionVersionService.Collection.VEHICLES
+        );
     }
 
     @PostMapping
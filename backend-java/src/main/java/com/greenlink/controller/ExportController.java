@@ -0,0 +1,66 @@
+package com.greenlink.controller;
+
+import com.greenlink.dto.ExportFormat;
+import com.greenlink.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // GET /api/export/routes?format=csv|ndjson - every route with its stops in driving order
+    @GetMapping("/routes")
+    public ResponseEntity<StreamingResponseBody> exportRoutes(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return download("routes", exportFormat, gzip, exportService.exportRoutes(exportFormat, gzip));
+    }
+
+    // GET /api/export/orders?format=csv|ndjson&status=
+    @GetMapping("/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String status,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return download("orders", exportFormat, gzip, exportService.exportOrders(status, exportFormat, gzip));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(
+            String name,
+            ExportFormat format,
+            boolean gzip,
+            StreamingResponseBody body
+    ) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,34 @@
+package com.greenlink.controller;
+
+import com.greenlink.dto.ImportResult;
+import com.greenlink.service.BulkImportService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final BulkImportService bulkImportService;
+
+    public ImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    // POST /api/import/orders (text/csv) - the body is streamed straight into COPY, never buffered
+    @PostMapping(value = "/orders", consumes = TEXT_CSV)
+    public ImportResult importOrders(InputStream body) {
+        return bulkImportService.importOrders(body);
+    }
+
+    // POST /api/import/vehicles (text/csv)
+    @PostMapping(value = "/vehicles", consumes = TEXT_CSV)
+    public ImportResult importVehicles(InputStream body) {
+        return bulkImportService.importVehicles(body);
+    }
+}
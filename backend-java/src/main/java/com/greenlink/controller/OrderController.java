@@ -1,9 +1,18 @@
 package com.greenlink.controller;
 
+import com.greenlink.dto.KeysetPage;
+import com.greenlink.dto.OrderSummary;
 import com.greenlink.model.DeliveryOrder;
+import com.greenlink.service.CollectionVersionService;
 import com.greenlink.service.OrderService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,15 +20,47 @@ import java.util.UUID;
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderService orderService;
+    private final CollectionVersionService collectionVersionService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, CollectionVersionService collectionVersionService) {
         this.orderService = orderService;
+        this.collectionVersionService = collectionVersionService;
+    }
+
+    // GET /api/orders?status=&createdFrom=&createdTo=&cursor=&limit=
+    // Returns one keyset page; the cursor for the next page is sent in X-Next-Cursor.
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<OrderSummary>> getOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            ServletWebRequest request
+    ) {
+        return collectionVersionService.conditionalGet(request, () -> {
+            KeysetPage<OrderSummary> page = orderService.getOrderPage(status, createdFrom, createdTo, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        }, CollectionVersionService.Collection.ORDERS);
     }
 
-    @GetMapping
-    public List<DeliveryOrder> getAllOrders() {
-        return orderService.getAllOrders();
+    // Same filters, every matching row streamed as newline-delimited JSON
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo
+    ) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(orderService.streamOrders(status, createdFrom, createdTo));
     }
 
     @PostMapping
@@ -0,0 +1,45 @@
+package com.greenlink.controller;
+
+import com.greenlink.dto.KeysetPage;
+import com.greenlink.model.ArchivedOrder;
+import com.greenlink.service.OrderHistoryService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/orders/history")
+public class OrderHistoryController {
+
+    private final OrderHistoryService orderHistoryService;
+
+    public OrderHistoryController(OrderHistoryService orderHistoryService) {
+        this.orderHistoryService = orderHistoryService;
+    }
+
+    // GET /api/orders/history?deliveredFrom=&deliveredTo=&cursor=&limit=
+    // Archived orders in delivery order; the next page cursor is sent in X-Next-Cursor.
+    @GetMapping
+    public ResponseEntity<List<ArchivedOrder>> getHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deliveredFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deliveredTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        KeysetPage<ArchivedOrder> page = orderHistoryService.getHistoryPage(deliveredFrom, deliveredTo, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(OrderController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @GetMapping("/{id}")
+    public ArchivedOrder getArchivedOrder(@PathVariable UUID id) {
+        return orderHistoryService.getArchivedOrder(id);
+    }
+}
@@ -1,13 +1,21 @@
 package com.greenlink.controller;
 
-import com.greenlink.repository.RouteRepository;
+import com.greenlink.dto.KeysetPage;
+import com.greenlink.dto.RouteSummary;
+import com.greenlink.service.CollectionVersionService;
+import com.greenlink.service.RouteService;
 import com.greenlink.service.RoutingService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import com.greenlink.model.Route;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -15,20 +23,39 @@ import java.util.List;
 public class RouteController {
 
     private final RoutingService routingService;
-    private final RouteRepository routeRepository;
+    private final RouteService routeService;
+    private final CollectionVersionService collectionVersionService;
 
-    public RouteController(RoutingService routingService, RouteRepository routeRepository) {
+    public RouteController(RoutingService routingService, RouteService routeService, CollectionVersionService collectionVersionService) {
         this.routingService = routingService;
-        this.routeRepository = routeRepository;
+        this.routeService = routeService;
+        this.collectionVersionService = collectionVersionService;
     }
 
+    // GET /api/routes?cursor=&limit=&expand=stops
     @GetMapping
-    public List<Route> getAllRoutes() {
-        return routeRepository.findAll();
+    public ResponseEntity<List<RouteSummary>> getRoutes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String expand,
+            ServletWebRequest request
+    ) {
+        // Summaries carry vehicle names and per-route order totals, so those collections count too
+        return collectionVersionService.conditionalGet(request, () -> {
+            KeysetPage<RouteSummary> page = routeService.getRoutePage(cursor, limit, "stops".equalsIgnoreCase(expand));
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(OrderController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        }, CollectionVersionService.Collection.ROUTES, CollectionVersionService.Collection.ORDERS, CollectionVersionService.Collection.VEHICLES);
     }
 
+    // Optional X-Time-Budget-Ms header; routes planned without the solver come back with degraded=true
     @PostMapping("/optimize")
-    public List<Route> optimizeRoutes() {
-        return routingService.optimizeRoutes();
+    public List<Route> optimizeRoutes(
+            @RequestHeader(name = RoutingService.TIME_BUDGET_HEADER, required = false) Long budgetMs
+    ) {
+        return routingService.optimizeRoutes(budgetMs == null ? null : Duration.ofMillis(budgetMs));
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,11 @@
 package com.greenlink.controller;
 
 import com.greenlink.model.Vehicle;
+import com.greenlink.service.CollectionVersionService;
 import com.greenlink.service.VehicleService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -12,16 +15,22 @@ import java.util.UUID;
 public class VehicleController {
 
     private final VehicleService vehicleService;
+    private final CollectionVersionService collectionVersionService;
 
     // Dependency Injection: Spring gives us the repository automatically
-    public VehicleController(VehicleService vehicleService) {
+    public VehicleController(VehicleService vehicleService, CollectionVersionService collectionVersionService) {
         this.vehicleService = vehicleService;
+        this.collectionVersionService = collectionVersionService;
     }
 
-    // GET /api/vehicles - List all vehicles
+    // GET /api/vehicles - List all vehicles (304 while the fleet is unchanged)
     @GetMapping
-    public List<Vehicle> getAllVehicles() {
-        return vehicleService.getAllVehicles();
+    public ResponseEntity<List<Vehicle>> getAllVehicles(ServletWebRequest request) {
+        return collectionVersionService.conditionalGet(
+                request,
+                () -> ResponseEntity.ok(vehicleService.getAllVehicles()),
+                CollectionVersionService.Collection.VEHICLES
+        );
     }
 
     // POST /api/vehicles - Create a new vehicle
@@ -0,0 +1,58 @@
+package com.greenlink.dto;
+
+import java.util.List;
+
+// Outcome of one bulk load. Line numbers count the CSV header as line 1.
+public class ImportResult {
+    private final long received;
+    private final long inserted;
+    private final long updated;
+    private final long skipped;
+    private final long duplicates;
+    private final long rejected;
+    private final List<RowError> errors;
+
+    public ImportResult(long received, long inserted, long updated, long skipped, long duplicates, long rejected, List<RowError> errors) {
+        this.received = received;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.skipped = skipped;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.errors = errors;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    // Valid rows whose existing order is already assigned or delivered, so left untouched
+    public long getSkipped() {
+        return skipped;
+    }
+
+    // Earlier rows superseded by a later row with the same external_ref
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    // First few rejected rows only; see getRejected() for the total
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public record RowError(long line, String reason) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.greenlink.dto;
+
+import java.util.List;
+
+public class KeysetPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    // Null when this is the last page
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
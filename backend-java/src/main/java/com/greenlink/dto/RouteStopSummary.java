@@ -0,0 +1,77 @@
+package com.greenlink.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.UUID;
+
+public class RouteStopSummary {
+    private final UUID routeId;
+    private final UUID id;
+    private final Integer sequence;
+    private final Double latitude;
+    private final Double longitude;
+    private final String address;
+    private final String status;
+    private final Integer weightKg;
+    private final Integer serviceDurationMin;
+
+    public RouteStopSummary(
+            UUID routeId,
+            UUID id,
+            Integer sequence,
+            Double latitude,
+            Double longitude,
+            String address,
+            String status,
+            Integer weightKg,
+            Integer serviceDurationMin
+    ) {
+        this.routeId = routeId;
+        this.id = id;
+        this.sequence = sequence;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.address = address;
+        this.status = status;
+        this.weightKg = weightKg;
+        this.serviceDurationMin = serviceDurationMin;
+    }
+
+    // Only used to group stops under their route; redundant in the nested JSON
+    @JsonIgnore
+    public UUID getRouteId() {
+        return routeId;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Integer getSequence() {
+        return sequence;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Integer getWeightKg() {
+        return weightKg;
+    }
+
+    public Integer getServiceDurationMin() {
+        return serviceDurationMin;
+    }
+}
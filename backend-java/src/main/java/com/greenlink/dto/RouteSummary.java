@@ -0,0 +1,81 @@
+package com.greenlink.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// One row per route from a single aggregate query; stops are only attached on ?expand=stops.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RouteSummary {
+    private final UUID id;
+    private final String status;
+    private final boolean degraded;
+    private final UUID vehicleId;
+    private final String vehicleName;
+    private final Long stopCount;
+    private final Long totalWeightKg;
+    private final LocalDateTime createdAt;
+    private List<RouteStopSummary> stops;
+
+    public RouteSummary(
+            UUID id,
+            String status,
+            boolean degraded,
+            UUID vehicleId,
+            String vehicleName,
+            Long stopCount,
+            Long totalWeightKg,
+            LocalDateTime createdAt
+    ) {
+        this.id = id;
+        this.status = status;
+        this.degraded = degraded;
+        this.vehicleId = vehicleId;
+        this.vehicleName = vehicleName;
+        this.stopCount = stopCount;
+        this.totalWeightKg = totalWeightKg;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public UUID getVehicleId() {
+        return vehicleId;
+    }
+
+    public String getVehicleName() {
+        return vehicleName;
+    }
+
+    public Long getStopCount() {
+        return stopCount;
+    }
+
+    public Long getTotalWeightKg() {
+        return totalWeightKg;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<RouteStopSummary> getStops() {
+        return stops;
+    }
+
+    public void setStops(List<RouteStopSummary> stops) {
+        this.stops = stops;
+    }
+}
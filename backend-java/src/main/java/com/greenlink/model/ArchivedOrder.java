@@ -0,0 +1,58 @@
+package com.greenlink.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A delivered order moved out of delivery_orders by OrderArchiver. Read-only.
+@Entity
+@Immutable
+@Table(name = "delivery_orders_history")
+@Getter
+@NoArgsConstructor
+public class ArchivedOrder {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID organizationId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime deliveredAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    @Column(length = 500)
+    private String address;
+
+    @Column(nullable = false)
+    private Integer weightKg;
+
+    @Column(nullable = false)
+    private Integer serviceDurationMin;
+
+    @Column(nullable = false)
+    private String status;
+
+    // The route may since have been deleted
+    private UUID routeId;
+
+    private Integer stopSequence;
+}
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -13,8 +14,9 @@ import java.util.UUID;
 @Setter
 public abstract class BaseEntity {
 
+    // Time-ordered (v7) ids keep primary-key and foreign-key index inserts sequential
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @Column(nullable = false, updatable = false)
@@ -27,4 +29,9 @@ public abstract class BaseEntity {
     // Security Boundary: Every data row belongs to a specific company
     @Column(nullable = false)
     private UUID organizationId;
+
+    // Optimistic lock: bumped on every update so stale writes are rejected
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
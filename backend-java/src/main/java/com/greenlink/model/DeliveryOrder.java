@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "delivery_orders")
 @Getter
@@ -32,6 +34,14 @@ public class DeliveryOrder extends BaseEntity {
     @Column(nullable = false)
     private String status = "UNASSIGNED";
 
+    // Position within the assigned route, null while unassigned
+    @Column(name = "stop_sequence")
+    private Integer stopSequence;
+
+    // Set when the driver marks it DELIVERED; OrderArchiver moves it to history after app.archive.delivered-age
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
     // ... existing fields ...
     @ManyToOne
     @JoinColumn(name = "route_id", nullable = true)
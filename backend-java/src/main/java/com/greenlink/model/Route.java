@@ -17,6 +17,10 @@ public class Route extends BaseEntity {
     @Column(nullable = false)
     private String status; // PLANNED, IN_PROGRESS, COMPLETED
 
+    // Planned by the in-process fallback because the solver missed its deadline or was unavailable
+    @Column(nullable = false)
+    private boolean degraded;
+
     @ManyToOne
     @JoinColumn(name = "vehicle_id")
     private Vehicle vehicle;
@@ -24,6 +28,7 @@ public class Route extends BaseEntity {
     // A Route has many Orders.
     // "mappedBy" tells Hibernate: "Look at the 'route' field in DeliveryOrder to find the link."
     @OneToMany(mappedBy = "route", cascade = { CascadeType.PERSIST, CascadeType.MERGE })
+    @OrderBy("stopSequence ASC")
     @JsonManagedReference
     private List<DeliveryOrder> orders = new ArrayList<>();
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.greenlink.repository;
+
+import com.greenlink.model.ArchivedOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, UUID> {
+
+    Optional<ArchivedOrder> findByIdAndOrganizationId(UUID id, UUID organizationId);
+
+    // Keyset page over (delivered_at, id); a delivery window prunes whole month partitions.
+    @Query("""
+            select o from ArchivedOrder o
+            where o.organizationId = :organizationId
+              and (cast(:deliveredFrom as LocalDateTime) is null or o.deliveredAt >= :deliveredFrom)
+              and (cast(:deliveredTo as LocalDateTime) is null or o.deliveredAt < :deliveredTo)
+              and (cast(:afterDeliveredAt as LocalDateTime) is null
+                   or o.deliveredAt > :afterDeliveredAt
+                   or (o.deliveredAt = :afterDeliveredAt and o.id > :afterId))
+            order by o.deliveredAt, o.id
+            """)
+    List<ArchivedOrder> findPage(
+            @Param("organizationId") UUID organizationId,
+            @Param("deliveredFrom") LocalDateTime deliveredFrom,
+            @Param("deliveredTo") LocalDateTime deliveredTo,
+            @Param("afterDeliveredAt") LocalDateTime afterDeliveredAt,
+            @Param("afterId") UUID afterId,
+            Limit limit
+    );
+
+    @Query(value = "select ensure_order_history_partitions(:cutoff)", nativeQuery = true)
+    int ensurePartitions(@Param("cutoff") LocalDateTime cutoff);
+
+    // Moves one batch from the hot table in a single statement. SKIP LOCKED keeps concurrent
+    // archivers (and rows a driver is touching right now) out of each other's way.
+    @Query(value = """
+            with moved as (
+                delete from delivery_orders
+                where id in (
+                    select id from delivery_orders
+                    where status = 'DELIVERED' and delivered_at < :cutoff
+                    order by delivered_at
+                    limit :batchSize
+                    for update skip locked)
+                returning id, organization_id, created_at, updated_at, delivered_at, latitude, longitude,
+                          address, weight_kg, service_duration_min, status, route_id, stop_sequence
+            )
+            insert into delivery_orders_history (id, organization_id, created_at, updated_at, delivered_at,
+                                                 latitude, longitude, address, weight_kg, service_duration_min,
+                                                 status, route_id, stop_sequence)
+            select id, organization_id, created_at, updated_at, delivered_at, latitude, longitude,
+                   address, weight_kg, service_duration_min, status, route_id, stop_sequence
+            from moved
+            """, nativeQuery = true)
+    @Modifying
+    int archiveDeliveredBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
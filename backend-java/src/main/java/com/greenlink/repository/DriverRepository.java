@@ -1,7 +1,10 @@
 package com.greenlink.repository;
 
 import com.greenlink.model.Driver;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,8 +13,15 @@ import java.util.UUID;
 
 @Repository
 public interface DriverRepository extends JpaRepository<Driver, UUID> {
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	List<Driver> findByOrganizationId(UUID organizationId);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<Driver> findByIdAndOrganizationId(UUID id, UUID organizationId);
+
+	// Driver portal resolves the current driver this way on every request
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<Driver> findByEmailAndOrganizationId(String email, UUID organizationId);
+
 	Optional<Driver> findFirstByEmailIgnoreCase(String email);
 }
@@ -1,11 +1,20 @@
 package com.greenlink.repository;
 
+import com.greenlink.dto.OrderSummary;
 import com.greenlink.model.DeliveryOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<DeliveryOrder, UUID> {
@@ -16,4 +25,50 @@ public interface OrderRepository extends JpaRepository<DeliveryOrder, UUID> {
     List<DeliveryOrder> findByOrganizationId(UUID organizationId);
 
     java.util.Optional<DeliveryOrder> findByIdAndOrganizationId(UUID id, UUID organizationId);
+
+    // Keyset page over (created_at, id), served by idx_orders_org_created_id.
+    // A null afterCreatedAt means "first page".
+    @Query("""
+            select new com.greenlink.dto.OrderSummary(
+                o.id, o.organizationId, o.createdAt, o.updatedAt, o.latitude, o.longitude,
+                o.address, o.weightKg, o.serviceDurationMin, o.status, o.route.id)
+            from DeliveryOrder o
+            where o.organizationId = :organizationId
+              and (:status is null or o.status = :status)
+              and (cast(:createdFrom as LocalDateTime) is null or o.createdAt >= :createdFrom)
+              and (cast(:createdTo as LocalDateTime) is null or o.createdAt < :createdTo)
+              and (cast(:afterCreatedAt as LocalDateTime) is null
+                   or o.createdAt > :afterCreatedAt
+                   or (o.createdAt = :afterCreatedAt and o.id > :afterId))
+            order by o.createdAt, o.id
+            """)
+    List<OrderSummary> findSummaryPage(
+            @Param("organizationId") UUID organizationId,
+            @Param("status") String status,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            Limit limit
+    );
+
+    // Cursor-backed stream for NDJSON export. Must be consumed inside a transaction.
+    @Query("""
+            select new com.greenlink.dto.OrderSummary(
+                o.id, o.organizationId, o.createdAt, o.updatedAt, o.latitude, o.longitude,
+                o.address, o.weightKg, o.serviceDurationMin, o.status, o.route.id)
+            from DeliveryOrder o
+            where o.organizationId = :organizationId
+              and (:status is null or o.status = :status)
+              and (cast(:createdFrom as LocalDateTime) is null or o.createdAt >= :createdFrom)
+              and (cast(:createdTo as LocalDateTime) is null or o.createdAt < :createdTo)
+            order by o.createdAt, o.id
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<OrderSummary> streamSummaries(
+            @Param("organizationId") UUID organizationId,
+            @Param("status") String status,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo
+    );
 }
@@ -1,9 +1,16 @@
 package com.greenlink.repository;
 
+import com.greenlink.dto.RouteStopSummary;
+import com.greenlink.dto.RouteSummary;
 import com.greenlink.model.Route;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,4 +21,42 @@ public interface RouteRepository extends JpaRepository<Route, UUID> {
     List<Route> findByVehicleIdAndOrganizationId(UUID vehicleId, UUID organizationId);
 
     List<Route> findByOrganizationId(UUID organizationId);
-}
\ No newline at end of file
+
+    @Query("select distinct r from Route r left join fetch r.orders where r.organizationId = :organizationId")
+    List<Route> findWithOrdersByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    // Stop count and load per route, aggregated in the database instead of walking route.orders
+    @Query("""
+            select new com.greenlink.dto.RouteSummary(
+                r.id, r.status, r.degraded, v.id, v.name, count(o.id), coalesce(sum(o.weightKg), 0L), r.createdAt)
+            from Route r
+            left join r.vehicle v
+            left join r.orders o
+            where r.organizationId = :organizationId
+              and (cast(:afterCreatedAt as LocalDateTime) is null
+                   or r.createdAt > :afterCreatedAt
+                   or (r.createdAt = :afterCreatedAt and r.id > :afterId))
+            group by r.id, r.status, r.degraded, v.id, v.name, r.createdAt
+            order by r.createdAt, r.id
+            """)
+    List<RouteSummary> findSummaryPage(
+            @Param("organizationId") UUID organizationId,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            Limit limit
+    );
+
+    @Query("""
+            select new com.greenlink.dto.RouteStopSummary(
+                o.route.id, o.id, o.stopSequence, o.latitude, o.longitude,
+                o.address, o.status, o.weightKg, o.serviceDurationMin)
+            from DeliveryOrder o
+            where o.organizationId = :organizationId
+              and o.route.id in :routeIds
+            order by o.route.id, o.stopSequence, o.id
+            """)
+    List<RouteStopSummary> findStopSummaries(
+            @Param("organizationId") UUID organizationId,
+            @Param("routeIds") Collection<UUID> routeIds
+    );
+}
@@ -1,7 +1,10 @@
 package com.greenlink.repository;
 
 import com.greenlink.model.Vehicle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,7 +15,10 @@ public interface VehicleRepository extends JpaRepository<Vehicle, UUID> {
 
     // Custom query: Find all vehicles for a specific company
     // This is CRITICAL for multi-tenancy security later.
+    // Result ids are query-cached; the rows themselves come from the Vehicle entity cache.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Vehicle> findByOrganizationId(UUID organizationId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     java.util.Optional<Vehicle> findByIdAndOrganizationId(UUID id, UUID organizationId);
-}
\ No newline at end of file
+}
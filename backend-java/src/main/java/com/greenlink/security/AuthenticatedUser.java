@@ -0,0 +1,28 @@
+package com.greenlink.security;
+
+import com.greenlink.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
+// Request principal rebuilt from verified JWT claims; no database row is read to create it.
+public record AuthenticatedUser(
+        UUID id,
+        String username,
+        UUID organizationId,
+        Role role,
+        int tokenVersion
+) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -0,0 +1,38 @@
+package com.greenlink.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+// Get-or-load for the security caches. The entry is claimed atomically with a bare future, and the
+// winner runs the loader on its own thread outside any map lock, so a virtual thread is not pinned
+// during the query. Concurrent callers share that load, and an invalidation landing mid-load drops
+// the future, so a value read before a revocation is never cached after it.
+final class CacheLoading {
+
+    private CacheLoading() {
+    }
+
+    static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> claimed = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> claimed);
+        if (future == claimed) {
+            try {
+                claimed.complete(loader.apply(key));
+            } catch (RuntimeException ex) {
+                // Failed futures are evicted, so errors (and unknown users) are not cached
+                claimed.completeExceptionally(ex);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
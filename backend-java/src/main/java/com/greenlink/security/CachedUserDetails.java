@@ -0,0 +1,45 @@
+package com.greenlink.security;
+
+import com.greenlink.model.Role;
+import com.greenlink.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Immutable copy of a users row for the login cache. Deliberately not a CredentialsContainer:
+// Spring Security would otherwise erase the password hash of the shared cached instance.
+public record CachedUserDetails(
+        UUID id,
+        String username,
+        String password,
+        Role role
+) implements UserDetails {
+
+    static CachedUserDetails of(User user) {
+        return new CachedUserDetails(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String toString() {
+        return "CachedUserDetails[id=" + id + ", username=" + username + ", role=" + role + "]";
+    }
+}
@@ -1,36 +1,59 @@
 package com.greenlink.security;
 
 import com.greenlink.model.User;
+import com.greenlink.repository.UserRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class CurrentUserService {
 
-    public User requireUser() {
+    private final UserRepository userRepository;
+
+    public CurrentUserService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // Identity from the verified token; no database access
+    public AuthenticatedUser requirePrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
 
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof User user) {
-            return user;
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal;
         }
 
         throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
     }
 
+    // Loads the full users row, for the account endpoints that read or change it
+    public User requireUser() {
+        return userRepository.findById(requirePrincipal().id())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+    }
+
     public UUID requireOrganizationId() {
-        UUID organizationId = requireUser().getOrganizationId();
+        UUID organizationId = requirePrincipal().organizationId();
         if (organizationId == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Organization not set");
         }
         return organizationId;
     }
+
+    // For tagging metrics and logs: empty off-request or before the caller has an organization
+    public Optional<UUID> currentOrganizationId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return Optional.ofNullable(principal.organizationId());
+        }
+        return Optional.empty();
+    }
 }
@@ -1,23 +1,51 @@
 package com.greenlink.security;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.greenlink.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
+/**
+ * Loads users for password login (and for any deployment that authenticates requests against
+ * DB-backed principals). Found users are cached by username up to app.security.user-cache.*;
+ * changes are pushed out through {@link UserCacheInvalidator}, the TTL only bounds staleness
+ * if a notification is ever lost. Unknown usernames are not cached.
+ */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final AsyncCache<String, CachedUserDetails> users;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(
+            UserRepository userRepository,
+            UserCacheInvalidator userCacheInvalidator,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.user-cache.ttl:PT10M}") Duration ttl
+    ) {
         this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, users.synchronous(), "users");
+        userCacheInvalidator.register(key -> users.synchronous().invalidate(key.username()), users.synchronous()::invalidateAll);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return CacheLoading.get(users, username, key -> userRepository.findByUsername(key)
+                .map(CachedUserDetails::of)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")));
     }
 }
@@ -1,24 +1,33 @@
 package com.greenlink.security;
 
+import com.greenlink.model.Role;
 import com.greenlink.model.User;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.Map;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ORGANIZATION_ID = "org";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
     private final SecretKey signingKey;
     private final long expirationMs;
+    // Thread-safe and reusable, so the parser is built once instead of per call
+    private final JwtParser parser;
 
     public JwtService(
             @Value("${jwt.secret}") String jwtSecret,
@@ -26,6 +35,7 @@ public class JwtService {
     ) {
         this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     public String generateToken(User user) {
@@ -34,38 +44,41 @@ public class JwtService {
 
         return Jwts.builder()
                 .subject(user.getUsername())
-                .claims(Map.of("role", user.getRole().name()))
+                .claim(CLAIM_USER_ID, user.getId().toString())
+                .claim(CLAIM_ORGANIZATION_ID, user.getOrganizationId().toString())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
                 .issuedAt(now)
                 .expiration(expiry)
                 .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parser()
-                .verifyWith(signingKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
-
-    public boolean isTokenValid(String token, UserDetails userDetails) {
+    /**
+     * Verifies the signature and expiry exactly once and maps the claims to a principal.
+     * Throws JwtException for anything invalid, including tokens issued before claims were
+     * embedded (those holders simply log in again).
+     */
+    public AuthenticatedUser parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         try {
-            String username = extractUsername(token);
-            return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+            return new AuthenticatedUser(
+                    UUID.fromString(requireClaim(claims, CLAIM_USER_ID, String.class)),
+                    claims.getSubject(),
+                    UUID.fromString(requireClaim(claims, CLAIM_ORGANIZATION_ID, String.class)),
+                    Role.valueOf(requireClaim(claims, CLAIM_ROLE, String.class)),
+                    requireClaim(claims, CLAIM_TOKEN_VERSION, Integer.class)
+            );
+        } catch (IllegalArgumentException ex) {
+            throw new JwtException("Malformed token claims", ex);
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parser()
-                .verifyWith(signingKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
-        return expiration.before(new Date());
+    private static <T> T requireClaim(Claims claims, String name, Class<T> type) {
+        T value = claims.get(name, type);
+        if (value == null) {
+            throw new JwtException("Missing claim: " + name);
+        }
+        return value;
     }
 }
@@ -0,0 +1,82 @@
+package com.greenlink.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Per-IP and per-username token buckets for login and registration, checked before any password
+ * is hashed so a credential-stuffing burst costs a map lookup rather than a BCrypt round. Every
+ * attempt counts against the client IP (the real one, from X-Forwarded-For via trusted proxies);
+ * only failed sign-ins count against the username, so nobody can lock an account out by merely
+ * naming it. The IP limit is deliberately loose: a whole depot of drivers can sit behind one address.
+ */
+@Service
+public class LoginThrottle {
+
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(15);
+
+    private final Cache<String, TokenBucket> byIp;
+    private final Cache<String, TokenBucket> byUsername;
+    private final int ipCapacity;
+    private final int ipPerMinute;
+    private final int usernameCapacity;
+    private final int usernamePerMinute;
+    private final Counter ipRejections;
+    private final Counter usernameRejections;
+
+    public LoginThrottle(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.login-throttle.per-ip.capacity:300}") int ipCapacity,
+            @Value("${app.security.login-throttle.per-ip.per-minute:120}") int ipPerMinute,
+            @Value("${app.security.login-throttle.per-username.capacity:10}") int usernameCapacity,
+            @Value("${app.security.login-throttle.per-username.per-minute:5}") int usernamePerMinute,
+            @Value("${app.security.login-throttle.max-tracked:100000}") long maxTracked
+    ) {
+        this.ipCapacity = ipCapacity;
+        this.ipPerMinute = ipPerMinute;
+        this.usernameCapacity = usernameCapacity;
+        this.usernamePerMinute = usernamePerMinute;
+        this.byIp = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(IDLE_EXPIRY).build();
+        this.byUsername = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(IDLE_EXPIRY).build();
+        this.ipRejections = Counter.builder("greenlink.login.throttled").tag("bucket", "ip").register(meterRegistry);
+        this.usernameRejections = Counter.builder("greenlink.login.throttled").tag("bucket", "username").register(meterRegistry);
+    }
+
+    public void check(HttpServletRequest request, String username) {
+        TokenBucket ip = byIp.get(request.getRemoteAddr(), key -> new TokenBucket(ipCapacity, ipPerMinute));
+        Duration wait = ip.tryConsume();
+        if (!wait.isZero()) {
+            ipRejections.increment();
+            throw new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS, "Too many sign-in attempts from this address", wait);
+        }
+        if (username == null || username.isBlank()) {
+            return;
+        }
+        TokenBucket user = byUsername.getIfPresent(usernameKey(username));
+        wait = user == null ? Duration.ZERO : user.waitTime();
+        if (!wait.isZero()) {
+            usernameRejections.increment();
+            throw new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS, "Too many failed sign-in attempts for this account", wait);
+        }
+    }
+
+    public void failed(String username) {
+        if (username == null || username.isBlank()) {
+            return;
+        }
+        byUsername.get(usernameKey(username), key -> new TokenBucket(usernameCapacity, usernamePerMinute)).tryConsume();
+    }
+
+    private static String usernameKey(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,29 @@
+package com.greenlink.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+// 429/503 that tells the client when to come back, via Retry-After (whole seconds, at least 1)
+public class RetryLaterException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public RetryLaterException(HttpStatus status, String reason, Duration retryAfter) {
+        super(status, reason);
+        this.retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,45 @@
+package com.greenlink.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+// Runs right after JwtAuthenticationFilter, so throttled requests never reach a controller.
+// Not a bean: it belongs in the security chain only, not also as a plain servlet filter.
+public class TenantRateLimitFilter extends OncePerRequestFilter {
+
+    private final TenantRateLimiter rateLimiter;
+    private final CurrentUserService currentUserService;
+
+    public TenantRateLimitFilter(TenantRateLimiter rateLimiter, CurrentUserService currentUserService) {
+        this.rateLimiter = rateLimiter;
+        this.currentUserService = currentUserService;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        // Unauthenticated requests are rejected further down the chain anyway
+        Optional<UUID> organizationId = currentUserService.currentOrganizationId();
+        if (organizationId.isPresent()) {
+            try {
+                rateLimiter.check(request, organizationId.get());
+            } catch (RetryLaterException ex) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+                response.sendError(ex.getStatusCode().value(), ex.getReason());
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,100 @@
+package com.greenlink.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.greenlink.config.MetricsConfig;
+import com.greenlink.config.TenantRateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-organization token buckets for expensive endpoints, so one tenant's burst of optimizes or
+ * geocoded writes cannot starve the solver and geocoder for everyone else. Requests are matched
+ * against the configured budgets in order; the first match is charged. Buckets live on this node,
+ * so with N nodes behind a balancer a tenant's effective budget is up to N times the configured one.
+ */
+@Service
+@EnableConfigurationProperties(TenantRateLimitProperties.class)
+public class TenantRateLimiter {
+
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(15);
+
+    private final List<Budget> budgets = new ArrayList<>();
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public TenantRateLimiter(
+            TenantRateLimitProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${app.rate-limit.max-tracked:100000}") long maxTracked
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(IDLE_EXPIRY).build();
+        if (properties.enabled() && properties.budgets() != null) {
+            for (Map.Entry<String, TenantRateLimitProperties.Budget> entry : properties.budgets().entrySet()) {
+                budgets.add(Budget.of(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    public void check(HttpServletRequest request, UUID organizationId) {
+        Budget budget = match(request);
+        if (budget == null) {
+            return;
+        }
+        TokenBucket bucket = buckets.get(budget.name() + ":" + organizationId,
+                key -> new TokenBucket(budget.capacity(), budget.perMinute()));
+        Duration wait = bucket.tryConsume();
+        if (!wait.isZero()) {
+            meterRegistry.counter("greenlink.ratelimit.throttled",
+                    MetricsConfig.ORGANIZATION_TAG, organizationId.toString(), "budget", budget.name()).increment();
+            throw new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many requests for your organization. Please slow down.", wait);
+        }
+    }
+
+    private Budget match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Budget budget : budgets) {
+            for (Endpoint endpoint : budget.endpoints()) {
+                if (endpoint.method().equals(request.getMethod()) && pathMatcher.match(endpoint.pattern(), path)) {
+                    return budget;
+                }
+            }
+        }
+        return null;
+    }
+
+    private record Budget(String name, List<Endpoint> endpoints, int capacity, int perMinute) {
+
+        static Budget of(String name, TenantRateLimitProperties.Budget configured) {
+            List<Endpoint> endpoints = configured.endpoints() == null ? List.of()
+                    : configured.endpoints().stream().map(Endpoint::parse).toList();
+            return new Budget(name, endpoints, configured.capacity(), configured.perMinute());
+        }
+    }
+
+    private record Endpoint(String method, String pattern) {
+
+        static Endpoint parse(String value) {
+            String[] parts = value.trim().split("\\s+", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Rate limit endpoint must be \"METHOD /path\": " + value);
+            }
+            return new Endpoint(parts[0].toUpperCase(Locale.ROOT), parts[1]);
+        }
+    }
+}
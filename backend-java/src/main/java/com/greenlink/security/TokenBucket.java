@@ -0,0 +1,45 @@
+package com.greenlink.security;
+
+import java.time.Duration;
+
+// Classic token bucket, refilled lazily on each attempt; no timer thread per bucket.
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(int capacity, int refillPerMinute) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    // Takes one token; returns Duration.ZERO on success, otherwise how long until one is available
+    public synchronized Duration tryConsume() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return Duration.ZERO;
+        }
+        return untilNextToken();
+    }
+
+    // Same answer as tryConsume, without taking the token
+    public synchronized Duration waitTime() {
+        refill();
+        return tokens >= 1 ? Duration.ZERO : untilNextToken();
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+
+    private Duration untilNextToken() {
+        return Duration.ofNanos((long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+}
@@ -0,0 +1,58 @@
+package com.greenlink.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.greenlink.model.User;
+import com.greenlink.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Revocation check for JWTs. A token is honoured only while the version it carries matches
+ * users.token_version. Versions are held in memory, dropped on every instance through
+ * {@link UserCacheInvalidator} when they change, and re-read after app.security.token-version-ttl
+ * regardless, in case a notification was missed.
+ */
+@Service
+public class TokenVersionService {
+
+    // Deleted users: every token they still hold is revoked
+    private static final int NO_USER = -1;
+
+    private final UserRepository userRepository;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final AsyncCache<UUID, Integer> versions;
+
+    public TokenVersionService(
+            UserRepository userRepository,
+            UserCacheInvalidator userCacheInvalidator,
+            @Value("${app.security.token-version-ttl:PT30S}") Duration ttl,
+            @Value("${app.security.user-cache.max-size:10000}") long maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.userCacheInvalidator = userCacheInvalidator;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+        userCacheInvalidator.register(key -> versions.synchronous().invalidate(key.id()), versions.synchronous()::invalidateAll);
+    }
+
+    public boolean isCurrent(AuthenticatedUser principal) {
+        int version = CacheLoading.get(versions, principal.id(),
+                id -> userRepository.findTokenVersionById(id).orElse(NO_USER));
+        return version == principal.tokenVersion();
+    }
+
+    // Invalidates every token issued to the user so far, saving any other pending changes with it;
+    // cached principals are dropped under the current and any previous usernames
+    public User revokeAll(User user, String... previousUsernames) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User saved = userRepository.save(user);
+        userCacheInvalidator.invalidate(saved, previousUsernames);
+        return saved;
+    }
+}
@@ -0,0 +1,82 @@
+package com.greenlink.security;
+
+import com.greenlink.config.PgNotifications;
+import com.greenlink.model.User;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Fans user changes out to every in-memory copy of user data, on this instance and, through
+ * NOTIFY on {@value #CHANNEL}, on all others. Local caches are dropped after commit so a
+ * concurrent login cannot re-cache the row being replaced.
+ */
+@Service
+public class UserCacheInvalidator {
+
+    static final String CHANNEL = "greenlink_user_cache";
+
+    private final PgNotifications notifications;
+    private final List<Consumer<Key>> evictors = new CopyOnWriteArrayList<>();
+
+    public UserCacheInvalidator(PgNotifications notifications) {
+        this.notifications = notifications;
+    }
+
+    // evictAll runs whenever notifications may have been missed (listener reconnect)
+    public void register(Consumer<Key> evict, Runnable evictAll) {
+        evictors.add(evict);
+        notifications.subscribe(CHANNEL, payload -> evict.accept(Key.parse(payload)), evictAll);
+    }
+
+    // Pass the previous username too when it changed, so both entries go
+    public void invalidate(User user, String... previousUsernames) {
+        invalidate(new Key(user.getId(), user.getUsername()));
+        for (String previous : previousUsernames) {
+            if (previous != null && !previous.equals(user.getUsername())) {
+                invalidate(new Key(user.getId(), previous));
+            }
+        }
+    }
+
+    private void invalidate(Key key) {
+        notifications.publish(CHANNEL, key.toPayload());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictLocally(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictLocally(key);
+            }
+        });
+    }
+
+    private void evictLocally(Key key) {
+        evictors.forEach(evict -> evict.accept(key));
+    }
+
+    public record Key(UUID id, String username) {
+
+        public Key {
+            Objects.requireNonNull(id);
+            Objects.requireNonNull(username);
+        }
+
+        private String toPayload() {
+            return id + " " + username;
+        }
+
+        private static Key parse(String payload) {
+            int space = payload.indexOf(' ');
+            return new Key(UUID.fromString(payload.substring(0, space)), payload.substring(space + 1));
+        }
+    }
+}
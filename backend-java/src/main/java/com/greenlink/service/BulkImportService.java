@@ -0,0 +1,235 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.ImportResult;
+import com.greenlink.security.CurrentUserService;
+import org.postgresql.PGConnection;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Nightly-scale CSV ingestion. Each load streams through COPY FROM STDIN into an unlogged staging
+ * table, is validated and de-duplicated there in SQL, then merged into the live table with one
+ * INSERT ... ON CONFLICT keyed on (organization_id, external_ref). The organization always comes
+ * from the caller's token, never from the file.
+ */
+@Service
+public class BulkImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 50;
+
+    private static final StagedLoad ORDERS = new StagedLoad(
+            "order_import_staging",
+            "external_ref, latitude, longitude, address, weight_kg, service_duration_min",
+            """
+            update order_import_staging set error = case
+                when coalesce(btrim(external_ref), '') = '' then 'external_ref is required'
+                when length(btrim(external_ref)) > 100 then 'external_ref is longer than 100 characters'
+                when coalesce(btrim(latitude), '') !~ '^[-+]?[0-9]+([.][0-9]+)?$' then 'latitude is not a number'
+                when btrim(latitude)::double precision not between -90 and 90 then 'latitude is out of range'
+                when coalesce(btrim(longitude), '') !~ '^[-+]?[0-9]+([.][0-9]+)?$' then 'longitude is not a number'
+                when btrim(longitude)::double precision not between -180 and 180 then 'longitude is out of range'
+                when coalesce(btrim(weight_kg), '') !~ '^[0-9]{1,9}$' then 'weight_kg must be a whole number'
+                when coalesce(btrim(service_duration_min), '') !~ '^[0-9]{1,9}$' then 'service_duration_min must be a whole number'
+                when length(address) > 500 then 'address is longer than 500 characters'
+            end
+            where load_id = ?
+            """,
+            // Orders already on a route (or delivered) keep their planned data
+            """
+            with merged as (
+                insert into delivery_orders (id, organization_id, created_at, updated_at, version, external_ref,
+                                             latitude, longitude, address, weight_kg, service_duration_min, status)
+                select uuid_v7_at(clock_timestamp()), ?, ?, ?, 0, btrim(external_ref),
+                       btrim(latitude)::double precision, btrim(longitude)::double precision, nullif(btrim(address), ''),
+                       btrim(weight_kg)::integer, btrim(service_duration_min)::integer, 'UNASSIGNED'
+                from order_import_staging
+                where load_id = ? and error is null
+                order by line_no
+                on conflict (organization_id, external_ref) where external_ref is not null do update
+                    set latitude = excluded.latitude,
+                        longitude = excluded.longitude,
+                        address = excluded.address,
+                        weight_kg = excluded.weight_kg,
+                        service_duration_min = excluded.service_duration_min,
+                        updated_at = excluded.updated_at,
+                        version = delivery_orders.version + 1
+                    where delivery_orders.status = 'UNASSIGNED'
+                returning (xmax = 0) as inserted
+            )
+            select count(*) filter (where inserted), count(*) filter (where not inserted) from merged
+            """
+    );
+
+    private static final StagedLoad VEHICLES = new StagedLoad(
+            "vehicle_import_staging",
+            "external_ref, name, capacity_kg, start_shift_minutes, end_shift_minutes, start_lat, start_lon, address",
+            """
+            update vehicle_import_staging set error = case
+                when coalesce(btrim(external_ref), '') = '' then 'external_ref is required'
+                when length(btrim(external_ref)) > 100 then 'external_ref is longer than 100 characters'
+                when coalesce(btrim(name), '') = '' then 'name is required'
+                when length(btrim(name)) > 255 then 'name is longer than 255 characters'
+                when coalesce(btrim(capacity_kg), '') !~ '^[0-9]{1,9}$' then 'capacity_kg must be a whole number'
+                when coalesce(btrim(start_shift_minutes), '') !~ '^[0-9]{1,4}$' then 'start_shift_minutes must be a whole number'
+                when coalesce(btrim(end_shift_minutes), '') !~ '^[0-9]{1,4}$' then 'end_shift_minutes must be a whole number'
+                when btrim(end_shift_minutes)::integer > 1440 then 'end_shift_minutes is past the end of the day'
+                when btrim(end_shift_minutes)::integer <= btrim(start_shift_minutes)::integer then 'shift ends before it starts'
+                when coalesce(btrim(start_lat), '') !~ '^[-+]?[0-9]+([.][0-9]+)?$' then 'start_lat is not a number'
+                when btrim(start_lat)::double precision not between -90 and 90 then 'start_lat is out of range'
+                when coalesce(btrim(start_lon), '') !~ '^[-+]?[0-9]+([.][0-9]+)?$' then 'start_lon is not a number'
+                when btrim(start_lon)::double precision not between -180 and 180 then 'start_lon is out of range'
+                when length(address) > 500 then 'address is longer than 500 characters'
+            end
+            where load_id = ?
+            """,
+            """
+            with merged as (
+                insert into vehicles (id, organization_id, created_at, updated_at, version, external_ref, name,
+                                      capacity_kg, start_shift_minutes, end_shift_minutes, start_lat, start_lon, address)
+                select uuid_v7_at(clock_timestamp()), ?, ?, ?, 0, btrim(external_ref), btrim(name),
+                       btrim(capacity_kg)::integer, btrim(start_shift_minutes)::integer, btrim(end_shift_minutes)::integer,
+                       btrim(start_lat)::double precision, btrim(start_lon)::double precision, nullif(btrim(address), '')
+                from vehicle_import_staging
+                where load_id = ? and error is null
+                order by line_no
+                on conflict (organization_id, external_ref) where external_ref is not null do update
+                    set name = excluded.name,
+                        capacity_kg = excluded.capacity_kg,
+                        start_shift_minutes = excluded.start_shift_minutes,
+                        end_shift_minutes = excluded.end_shift_minutes,
+                        start_lat = excluded.start_lat,
+                        start_lon = excluded.start_lon,
+                        address = excluded.address,
+                        updated_at = excluded.updated_at,
+                        version = vehicles.version + 1
+                returning (xmax = 0) as inserted
+            )
+            select count(*) filter (where inserted), count(*) filter (where not inserted) from merged
+            """
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CurrentUserService currentUserService;
+    private final InvalidationBus invalidationBus;
+
+    public BulkImportService(
+            JdbcTemplate jdbcTemplate,
+            CurrentUserService currentUserService,
+            InvalidationBus invalidationBus
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.currentUserService = currentUserService;
+        this.invalidationBus = invalidationBus;
+    }
+
+    // CSV with a header row: external_ref,latitude,longitude,address,weight_kg,service_duration_min
+    @Transactional
+    public ImportResult importOrders(InputStream csv) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        ImportResult result = load(ORDERS, csv, organizationId);
+        invalidationBus.publish(InvalidationBus.Entity.ORDER, organizationId, null);
+        return result;
+    }
+
+    // CSV with a header row: external_ref,name,capacity_kg,start_shift_minutes,end_shift_minutes,start_lat,start_lon,address
+    @Transactional
+    public ImportResult importVehicles(InputStream csv) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        ImportResult result = load(VEHICLES, csv, organizationId);
+        // Written behind Hibernate's back, so the fleet cache has to be dropped explicitly
+        invalidationBus.publish(InvalidationBus.Entity.VEHICLE, organizationId, null);
+        return result;
+    }
+
+    private ImportResult load(StagedLoad spec, InputStream csv, UUID organizationId) {
+        UUID loadId = UUID.randomUUID();
+        // Staging rows pick their load_id up from this setting (see V16)
+        jdbcTemplate.queryForObject("select set_config('greenlink.import_load_id', ?, true)", String.class, loadId.toString());
+
+        long received = copyIn(
+                "COPY " + spec.stagingTable() + " (" + spec.columns() + ") FROM STDIN WITH (FORMAT csv, HEADER true)",
+                csv
+        );
+
+        jdbcTemplate.update(spec.validateSql(), loadId);
+        Long rejected = jdbcTemplate.queryForObject(
+                "select count(*) from " + spec.stagingTable() + " where load_id = ? and error is not null",
+                Long.class,
+                loadId
+        );
+        List<ImportResult.RowError> errors = jdbcTemplate.query(
+                """
+                select line, error from (
+                    select error, row_number() over (order by line_no) + 1 as line
+                    from %s where load_id = ?
+                ) numbered
+                where error is not null
+                order by line
+                limit ?
+                """.formatted(spec.stagingTable()),
+                (rs, rowNum) -> new ImportResult.RowError(rs.getLong("line"), rs.getString("error")),
+                loadId,
+                MAX_REPORTED_ERRORS
+        );
+
+        // Last row wins for a repeated external_ref; ON CONFLICT cannot touch a row twice
+        int duplicates = jdbcTemplate.update(
+                """
+                delete from %1$s where load_id = ? and line_no in (
+                    select line_no from (
+                        select line_no, row_number() over (partition by btrim(external_ref) order by line_no desc) as rn
+                        from %1$s where load_id = ? and error is null
+                    ) ranked
+                    where rn > 1
+                )
+                """.formatted(spec.stagingTable()),
+                loadId,
+                loadId
+        );
+
+        LocalDateTime now = LocalDateTime.now();
+        long[] merged = jdbcTemplate.queryForObject(
+                spec.mergeSql(),
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                organizationId,
+                now,
+                now,
+                loadId
+        );
+
+        jdbcTemplate.update("delete from " + spec.stagingTable() + " where load_id = ?", loadId);
+
+        long rejectedCount = rejected == null ? 0 : rejected;
+        long skipped = received - rejectedCount - duplicates - merged[0] - merged[1];
+        return new ImportResult(received, merged[0], merged[1], skipped, duplicates, rejectedCount, errors);
+    }
+
+    private long copyIn(String sql, InputStream csv) {
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, csv);
+            } catch (SQLException ex) {
+                // Structural problems (wrong column count, broken quoting) fail the whole load
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed CSV: " + ex.getMessage());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return copied == null ? 0 : copied;
+    }
+
+    private record StagedLoad(String stagingTable, String columns, String validateSql, String mergeSql) {
+    }
+}
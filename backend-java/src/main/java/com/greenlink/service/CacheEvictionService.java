@@ -0,0 +1,56 @@
+package com.greenlink.service;
+
+import com.greenlink.model.Driver;
+import com.greenlink.model.Vehicle;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Service;
+
+/**
+ * Explicit eviction for the fleet second-level cache.
+ * Hibernate already keeps the cache in step with writes it performs itself; this covers writes
+ * it cannot see (bulk SQL, other nodes). Evictions are driven by vehicle and driver changes on
+ * the {@link InvalidationBus}, which delivers them only after the writing transaction commits,
+ * so a concurrent reader can never re-cache the pre-commit state.
+ */
+@Service
+public class CacheEvictionService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheEvictionService(EntityManagerFactory entityManagerFactory, InvalidationBus invalidationBus) {
+        this.entityManagerFactory = entityManagerFactory;
+        invalidationBus.subscribe(InvalidationBus.Entity.VEHICLE, this::evictVehicle, this::evictFleet);
+        invalidationBus.subscribe(InvalidationBus.Entity.DRIVER, this::evictDriver, this::evictFleet);
+    }
+
+    private void evictVehicle(InvalidationBus.Change change) {
+        if (change.id() == null) {
+            cache().evictEntityData(Vehicle.class);
+        } else {
+            cache().evictEntityData(Vehicle.class, change.id());
+        }
+        // Drivers embed their assigned vehicle reference
+        cache().evictEntityData(Driver.class);
+        cache().evictDefaultQueryRegion();
+    }
+
+    private void evictDriver(InvalidationBus.Change change) {
+        if (change.id() == null) {
+            cache().evictEntityData(Driver.class);
+        } else {
+            cache().evictEntityData(Driver.class, change.id());
+        }
+        cache().evictDefaultQueryRegion();
+    }
+
+    private void evictFleet() {
+        cache().evictEntityData(Vehicle.class);
+        cache().evictEntityData(Driver.class);
+        cache().evictDefaultQueryRegion();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.greenlink.service;
+
+import com.greenlink.security.CurrentUserService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for the org-scoped list endpoints. Validators come from collection_versions,
+ * which triggers bump on every write (see V18), so a matching If-None-Match is answered with a
+ * single primary-key lookup and no entity loading.
+ */
+@Service
+public class CollectionVersionService {
+
+    // Revalidate on every use; the response is per user, so never in shared caches
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    public enum Collection {
+        VEHICLES("vehicles"),
+        DRIVERS("drivers"),
+        ORDERS("orders"),
+        ROUTES("routes");
+
+        private final String key;
+
+        Collection(String key) {
+            this.key = key;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CurrentUserService currentUserService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CollectionVersionService(
+            JdbcTemplate jdbcTemplate,
+            CurrentUserService currentUserService,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.currentUserService = currentUserService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Answers 304 when the client's ETag/Last-Modified still match the given collections,
+     * otherwise runs the loader. Both happen in one read-only transaction so the versions and
+     * the data come from the same server (replicas can lag differently), versions read first:
+     * a write landing in between only makes the next request reload.
+     */
+    public <T> ResponseEntity<T> conditionalGet(ServletWebRequest request, Supplier<ResponseEntity<T>> loader, Collection... collections) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        return readOnlyTransaction.execute(tx -> {
+            Validators validators = load(organizationId, collections);
+            if (request.getResponse() != null) {
+                request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            }
+            if (request.checkNotModified(validators.etag(), validators.lastModifiedMillis())) {
+                return null;
+            }
+            return loader.get();
+        });
+    }
+
+    private Validators load(UUID organizationId, Collection[] collections) {
+        String[] keys = Arrays.stream(collections).map(collection -> collection.key).toArray(String[]::new);
+        return jdbcTemplate.queryForObject(
+                """
+                select coalesce(string_agg(c.key || '.' || coalesce(v.version, 0), '-' order by c.ord), '') as versions,
+                       coalesce((extract(epoch from max(v.changed_at)) * 1000)::bigint, -1) as changed_at
+                from unnest(?::varchar[]) with ordinality as c(key, ord)
+                left join collection_versions v on v.organization_id = ? and v.collection = c.key
+                """,
+                (rs, rowNum) -> new Validators(
+                        // Weak: the body may be gzipped or not; org included so another account's copy never matches
+                        "W/\"" + organizationId + "-" + rs.getString("versions") + "\"",
+                        rs.getLong("changed_at")
+                ),
+                keys,
+                organizationId
+        );
+    }
+
+    private record Validators(String etag, long lastModifiedMillis) {
+    }
+}
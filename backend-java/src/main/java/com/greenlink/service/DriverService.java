@@ -21,17 +21,21 @@ public class DriverService {
     private final DriverRepository driverRepository;
     private final VehicleRepository vehicleRepository;
     private final CurrentUserService currentUserService;
+    private final InvalidationBus invalidationBus;
 
     public DriverService(
             DriverRepository driverRepository,
             VehicleRepository vehicleRepository,
-            CurrentUserService currentUserService
+            CurrentUserService currentUserService,
+            InvalidationBus invalidationBus
     ) {
         this.driverRepository = driverRepository;
         this.vehicleRepository = vehicleRepository;
         this.currentUserService = currentUserService;
+        this.invalidationBus = invalidationBus;
     }
 
+    @Transactional(readOnly = true)
     public List<Driver> getAllDrivers() {
         return driverRepository.findByOrganizationId(currentUserService.requireOrganizationId());
     }
@@ -46,7 +50,9 @@ public class DriverService {
             driver.setLastCheckIn(LocalDateTime.now());
         }
 
-        return driverRepository.save(driver);
+        Driver saved = driverRepository.save(driver);
+        invalidationBus.publish(InvalidationBus.Entity.DRIVER, saved.getOrganizationId(), saved.getId());
+        return saved;
     }
 
     @Transactional
@@ -57,7 +63,9 @@ public class DriverService {
 
         applyRequest(driver, request);
 
-        return driverRepository.save(driver);
+        Driver saved = driverRepository.save(driver);
+        invalidationBus.publish(InvalidationBus.Entity.DRIVER, saved.getOrganizationId(), id);
+        return saved;
     }
 
     public void deleteDriver(UUID id) {
@@ -66,6 +74,7 @@ public class DriverService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Driver not found."));
 
         driverRepository.delete(driver);
+        invalidationBus.publish(InvalidationBus.Entity.DRIVER, driver.getOrganizationId(), id);
     }
 
     private void applyRequest(Driver driver, DriverRequest request) {
@@ -0,0 +1,207 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.ExportFormat;
+import com.greenlink.security.CurrentUserService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plan exports for ops. Rows go from a server-side JDBC cursor straight to the response stream,
+ * so neither entities nor the full result set are ever held in memory.
+ */
+@Service
+public class ExportService {
+
+    // Rows per cursor round trip; Postgres only streams when this is set and autocommit is off
+    private static final int FETCH_SIZE = 1000;
+
+    private static final List<String> ORDER_COLUMNS = List.of(
+            "id", "externalRef", "status", "createdAt", "updatedAt", "deliveredAt", "routeId", "stopSequence",
+            "latitude", "longitude", "address", "weightKg", "serviceDurationMin"
+    );
+
+    private static final String ORDERS_SQL = """
+            select o.id, o.external_ref, o.status, o.created_at, o.updated_at, o.delivered_at, o.route_id,
+                   o.stop_sequence, o.latitude, o.longitude, o.address, o.weight_kg, o.service_duration_min
+            from delivery_orders o
+            where o.organization_id = ?
+              and (?::varchar is null or o.status = ?)
+            order by o.created_at, o.id
+            """;
+
+    private static final List<String> ROUTE_STOP_COLUMNS = List.of(
+            "routeId", "routeStatus", "routeCreatedAt", "vehicleId", "vehicleName", "stopSequence",
+            "orderId", "orderStatus", "latitude", "longitude", "address", "weightKg", "serviceDurationMin"
+    );
+
+    // One row per stop, routes in listing order and stops in driving order; empty routes get one row
+    private static final String ROUTE_STOPS_SQL = """
+            select r.id as route_id, r.status as route_status, r.created_at as route_created_at,
+                   r.vehicle_id, v.name as vehicle_name, o.stop_sequence, o.id as order_id,
+                   o.status as order_status, o.latitude, o.longitude, o.address, o.weight_kg,
+                   o.service_duration_min
+            from routes r
+            left join vehicles v on v.id = r.vehicle_id
+            left join delivery_orders o on o.route_id = r.id and o.organization_id = r.organization_id
+            where r.organization_id = ?
+            order by r.created_at, r.id, o.stop_sequence nulls last, o.id
+            """;
+
+    private final JdbcTemplate cursorTemplate;
+    private final CurrentUserService currentUserService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonMapper jsonMapper;
+
+    public ExportService(
+            DataSource dataSource,
+            CurrentUserService currentUserService,
+            PlatformTransactionManager transactionManager,
+            JsonMapper jsonMapper
+    ) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(FETCH_SIZE);
+        this.currentUserService = currentUserService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonMapper = jsonMapper;
+    }
+
+    public StreamingResponseBody exportOrders(String status, ExportFormat format, boolean gzip) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+
+        return outputStream -> readOnlyTransaction.executeWithoutResult(tx -> {
+            try (ExportWriter writer = ExportWriter.open(outputStream, format, gzip, ORDER_COLUMNS, jsonMapper)) {
+                cursorTemplate.query(ORDERS_SQL, rs -> {
+                    writer.row(
+                            rs.getObject("id"),
+                            rs.getString("external_ref"),
+                            rs.getString("status"),
+                            rs.getObject("created_at", LocalDateTime.class),
+                            rs.getObject("updated_at", LocalDateTime.class),
+                            rs.getObject("delivered_at", LocalDateTime.class),
+                            rs.getObject("route_id"),
+                            rs.getObject("stop_sequence"),
+                            rs.getObject("latitude"),
+                            rs.getObject("longitude"),
+                            rs.getString("address"),
+                            rs.getObject("weight_kg"),
+                            rs.getObject("service_duration_min")
+                    );
+                }, organizationId, status, status);
+            }
+        });
+    }
+
+    // CSV is one line per stop; NDJSON is one document per route with its stops nested
+    public StreamingResponseBody exportRoutes(ExportFormat format, boolean gzip) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+
+        return outputStream -> readOnlyTransaction.executeWithoutResult(tx -> {
+            try (ExportWriter writer = ExportWriter.open(outputStream, format, gzip, ROUTE_STOP_COLUMNS, jsonMapper)) {
+                if (format == ExportFormat.CSV) {
+                    cursorTemplate.query(ROUTE_STOPS_SQL, rs -> {
+                        writer.row(
+                                rs.getObject("route_id"),
+                                rs.getString("route_status"),
+                                rs.getObject("route_created_at", LocalDateTime.class),
+                                rs.getObject("vehicle_id"),
+                                rs.getString("vehicle_name"),
+                                rs.getObject("stop_sequence"),
+                                rs.getObject("order_id"),
+                                rs.getString("order_status"),
+                                rs.getObject("latitude"),
+                                rs.getObject("longitude"),
+                                rs.getString("address"),
+                                rs.getObject("weight_kg"),
+                                rs.getObject("service_duration_min")
+                        );
+                    }, organizationId);
+                    return;
+                }
+
+                // Rows arrive grouped by route, so only the route being assembled is held
+                RouteGrouper grouper = new RouteGrouper(writer);
+                cursorTemplate.query(ROUTE_STOPS_SQL, grouper::accept, organizationId);
+                grouper.finish();
+            }
+        });
+    }
+
+    record ExportedStop(
+            Integer sequence,
+            UUID orderId,
+            String status,
+            Double latitude,
+            Double longitude,
+            String address,
+            Integer weightKg,
+            Integer serviceDurationMin
+    ) {
+    }
+
+    record ExportedRoute(
+            UUID id,
+            String status,
+            LocalDateTime createdAt,
+            UUID vehicleId,
+            String vehicleName,
+            List<ExportedStop> stops
+    ) {
+    }
+
+    private static final class RouteGrouper {
+        private final ExportWriter writer;
+        private ExportedRoute current;
+
+        private RouteGrouper(ExportWriter writer) {
+            this.writer = writer;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            UUID routeId = rs.getObject("route_id", UUID.class);
+            if (current == null || !current.id().equals(routeId)) {
+                finish();
+                current = new ExportedRoute(
+                        routeId,
+                        rs.getString("route_status"),
+                        rs.getObject("route_created_at", LocalDateTime.class),
+                        rs.getObject("vehicle_id", UUID.class),
+                        rs.getString("vehicle_name"),
+                        new ArrayList<>()
+                );
+            }
+            UUID orderId = rs.getObject("order_id", UUID.class);
+            if (orderId != null) {
+                current.stops().add(new ExportedStop(
+                        rs.getObject("stop_sequence", Integer.class),
+                        orderId,
+                        rs.getString("order_status"),
+                        rs.getObject("latitude", Double.class),
+                        rs.getObject("longitude", Double.class),
+                        rs.getString("address"),
+                        rs.getObject("weight_kg", Integer.class),
+                        rs.getObject("service_duration_min", Integer.class)
+                ));
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                writer.object(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.ExportFormat;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes export rows to a response stream as CSV or NDJSON, optionally gzipped, flushing every
+ * few hundred rows so memory stays flat however long the export runs.
+ */
+final class ExportWriter implements Closeable {
+
+    private static final int FLUSH_EVERY = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final ExportFormat format;
+    private final List<String> columns;
+    private final JsonMapper jsonMapper;
+    private int rowsSinceFlush;
+
+    private ExportWriter(OutputStream out, ExportFormat format, List<String> columns, JsonMapper jsonMapper) {
+        this.out = out;
+        this.format = format;
+        this.columns = columns;
+        this.jsonMapper = jsonMapper;
+    }
+
+    static ExportWriter open(OutputStream target, ExportFormat format, boolean gzip, List<String> columns, JsonMapper jsonMapper) {
+        try {
+            OutputStream out = gzip
+                    ? new GZIPOutputStream(target, BUFFER_SIZE, true)
+                    : new BufferedOutputStream(target, BUFFER_SIZE);
+            ExportWriter writer = new ExportWriter(out, format, columns, jsonMapper);
+            if (format == ExportFormat.CSV) {
+                writer.writeCsvLine(columns.toArray());
+            }
+            return writer;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // One flat row, values in column order
+    void row(Object... values) {
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(values);
+        } else {
+            Map<String, Object> json = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                json.put(columns.get(i), values[i]);
+            }
+            object(json);
+        }
+    }
+
+    // One NDJSON document; only meaningful for ExportFormat.NDJSON
+    void object(Object value) {
+        try {
+            out.write(jsonMapper.writeValueAsBytes(value));
+            out.write('\n');
+            afterRow();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeCsvLine(Object[] values) {
+        StringBuilder line = new StringBuilder(128);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendCsvValue(line, values[i]);
+        }
+        line.append('\n');
+        try {
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+            afterRow();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void appendCsvValue(StringBuilder line, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            line.append(text);
+            return;
+        }
+        line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    private void afterRow() throws IOException {
+        if (++rowsSinceFlush >= FLUSH_EVERY) {
+            out.flush();
+            rowsSinceFlush = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (out instanceof GZIPOutputStream gzip) {
+                gzip.finish();
+            }
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
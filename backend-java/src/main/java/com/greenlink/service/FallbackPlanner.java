@@ -0,0 +1,161 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.RouteResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process capacity-aware nearest insertion, used when the solver misses its deadline or its
+ * breaker is open. Routes are open paths from each vehicle's start, like the solver's. Each step
+ * takes the unassigned order closest to a start or stop of a vehicle that can still carry it, and
+ * inserts it where it lengthens that vehicle's route least. Orders no vehicle can carry stay
+ * unassigned. Distances are straight lines, so plans are usable rather than good.
+ */
+final class FallbackPlanner {
+
+    // Same default start as the solver for vehicles without one
+    private static final double DEFAULT_START_LAT = 40.7128;
+    private static final double DEFAULT_START_LON = -74.0060;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private FallbackPlanner() {
+    }
+
+    static RouteResponse plan(ProblemSnapshot snapshot) {
+        int n = snapshot.orderCount;
+        int m = snapshot.vehicleCount;
+        // Nodes 0..n-1 are orders, n..n+m-1 vehicle starts
+        double[] lat = Arrays.copyOf(snapshot.orderLat, n + m);
+        double[] lon = Arrays.copyOf(snapshot.orderLon, n + m);
+        for (int v = 0; v < m; v++) {
+            lat[n + v] = Double.isNaN(snapshot.vehicleStartLat[v]) ? DEFAULT_START_LAT : snapshot.vehicleStartLat[v];
+            lon[n + v] = Double.isNaN(snapshot.vehicleStartLon[v]) ? DEFAULT_START_LON : snapshot.vehicleStartLon[v];
+        }
+        int[] weight = snapshot.orderWeightKg;
+        int[] remaining = snapshot.vehicleCapacityKg.clone();
+        Plane plane = new Plane(lat, lon);
+
+        // reach[i * m + v]: distance from order i to the nearest start or stop of vehicle v
+        float[] reach = new float[n * m];
+        double[] best = new double[n];
+        int[] bestVehicle = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int v = 0; v < m; v++) {
+                reach[i * m + v] = (float) plane.distance(i, n + v);
+            }
+            nearestVehicle(i, m, reach, weight, remaining, best, bestVehicle);
+        }
+
+        List<List<Integer>> routes = new ArrayList<>(m);
+        for (int v = 0; v < m; v++) {
+            routes.add(new ArrayList<>());
+        }
+        boolean[] assigned = new boolean[n];
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < n; i++) {
+                if (!assigned[i] && bestVehicle[i] >= 0 && (next < 0 || best[i] < best[next])) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            int v = bestVehicle[next];
+            insertCheapest(plane, routes.get(v), n + v, next);
+            assigned[next] = true;
+            remaining[v] -= weight[next];
+
+            for (int i = 0; i < n; i++) {
+                if (assigned[i]) {
+                    continue;
+                }
+                double distance = plane.distance(next, i);
+                if (distance < reach[i * m + v]) {
+                    reach[i * m + v] = (float) distance;
+                }
+                if (weight[i] > remaining[v]) {
+                    if (bestVehicle[i] == v) {
+                        nearestVehicle(i, m, reach, weight, remaining, best, bestVehicle);
+                    }
+                } else if (distance < best[i]) {
+                    best[i] = distance;
+                    bestVehicle[i] = v;
+                }
+            }
+        }
+
+        RouteResponse response = new RouteResponse();
+        response.setRoutes(new ArrayList<>());
+        for (int v = 0; v < m; v++) {
+            if (routes.get(v).isEmpty()) {
+                continue;
+            }
+            RouteResponse.RoutePlan plan = new RouteResponse.RoutePlan();
+            plan.setVehicleId(snapshot.vehicleId(v).toString());
+            plan.setStops(routes.get(v).stream()
+                    .map(i -> Map.<String, Object>of("id", snapshot.orderId(i).toString()))
+                    .toList());
+            response.getRoutes().add(plan);
+        }
+        return response;
+    }
+
+    private static void nearestVehicle(int i, int m, float[] reach, int[] weight, int[] remaining,
+                                       double[] best, int[] bestVehicle) {
+        best[i] = Double.POSITIVE_INFINITY;
+        bestVehicle[i] = -1;
+        for (int v = 0; v < m; v++) {
+            if (weight[i] <= remaining[v] && reach[i * m + v] < best[i]) {
+                best[i] = reach[i * m + v];
+                bestVehicle[i] = v;
+            }
+        }
+    }
+
+    private static void insertCheapest(Plane plane, List<Integer> route, int start, int order) {
+        int position = route.size();
+        double cheapest = Double.POSITIVE_INFINITY;
+        int previous = start;
+        for (int k = 0; k <= route.size(); k++) {
+            double added = plane.distance(previous, order);
+            if (k < route.size()) {
+                int following = route.get(k);
+                added += plane.distance(order, following) - plane.distance(previous, following);
+                previous = following;
+            }
+            if (added < cheapest) {
+                cheapest = added;
+                position = k;
+            }
+        }
+        route.add(position, order);
+    }
+
+    // Equirectangular projection around the mean latitude: accurate enough at city scale, and cheap
+    private static final class Plane {
+
+        private final double[] x;
+        private final double[] y;
+
+        private Plane(double[] lat, double[] lon) {
+            double meanLat = Arrays.stream(lat).average().orElse(0);
+            double scale = Math.cos(Math.toRadians(meanLat));
+            this.x = new double[lat.length];
+            this.y = new double[lat.length];
+            for (int i = 0; i < lat.length; i++) {
+                x[i] = Math.toRadians(lon[i]) * scale * EARTH_RADIUS_KM;
+                y[i] = Math.toRadians(lat[i]) * EARTH_RADIUS_KM;
+            }
+        }
+
+        private double distance(int a, int b) {
+            double dx = x[a] - x[b];
+            double dy = y[a] - y[b];
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+}
@@ -1,60 +1,48 @@
 package com.greenlink.service;
 
-import org.springframework.http.HttpEntity;
+import com.greenlink.config.OutboundHttp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
-import java.net.http.HttpClient;
-import java.time.Duration;
 import java.util.Locale;
 import java.util.Map;
 
 @Service
 public class GeocodingService {
 
-    private static final String NOMINATIM_URL =
-            "https://nominatim.openstreetmap.org/reverse?format=json&lat={lat}&lon={lon}";
-    private static final String NOMINATIM_SEARCH_URL =
-            "https://nominatim.openstreetmap.org/search?format=json&limit=1&q={address}";
+    private static final String NOMINATIM_PATH = "/reverse?format=json&lat={lat}&lon={lon}";
+    private static final String NOMINATIM_SEARCH_PATH = "/search?format=json&limit=1&q={address}";
     private static final String USER_AGENT = "GreenLink/1.0 (contact: dev@greenlink.local)";
-    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(3);
-    private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
 
-    private final RestTemplate restTemplate;
-
-    public GeocodingService() {
-        HttpClient httpClient = HttpClient.newBuilder()
-                .connectTimeout(CONNECT_TIMEOUT)
+    private final RestClient restClient;
+    private final Counter reverseFallbacks;
+    private final Counter searchFallbacks;
+
+    // Timeouts and protocol come from app.http.destinations.nominatim
+    public GeocodingService(
+            OutboundHttp outboundHttp,
+            MeterRegistry meterRegistry,
+            @Value("${app.geocoding.base-url:https://nominatim.openstreetmap.org}") String baseUrl
+    ) {
+        this.restClient = outboundHttp.restClient("nominatim", baseUrl)
+                .defaultHeader(HttpHeaders.USER_AGENT, USER_AGENT)
                 .build();
-
-        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
-        requestFactory.setReadTimeout(READ_TIMEOUT);
-
-        this.restTemplate = new RestTemplate(requestFactory);
+        // Lookups that fell back (no result or a failed call); per-call latency is in http.client.requests
+        this.reverseFallbacks = meterRegistry.counter("greenlink.geocoding.fallbacks", "op", "reverse");
+        this.searchFallbacks = meterRegistry.counter("greenlink.geocoding.fallbacks", "op", "search");
     }
 
     public String getAddress(double lat, double lon) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.USER_AGENT, USER_AGENT);
-
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    NOMINATIM_URL,
-                    HttpMethod.GET,
-                    entity,
-                    Map.class,
-                    lat,
-                    lon
-            );
-
-            Map body = response.getBody();
+            Map body = restClient.get()
+                    .uri(NOMINATIM_PATH, lat, lon)
+                    .retrieve()
+                    .body(Map.class);
             if (body != null) {
                 Object displayName = body.get("display_name");
                 if (displayName instanceof String display && !display.isBlank()) {
@@ -65,25 +53,16 @@ public class GeocodingService {
             // Fall back to coordinate string to avoid request failures breaking order creation.
         }
 
+        reverseFallbacks.increment();
         return formatCoordinates(lat, lon);
     }
 
     public GeocodeResult geocodeAddress(String address) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.USER_AGENT, USER_AGENT);
-
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
         try {
-            ResponseEntity<java.util.List> response = restTemplate.exchange(
-                    NOMINATIM_SEARCH_URL,
-                    HttpMethod.GET,
-                    entity,
-                    java.util.List.class,
-                    address
-            );
-
-            java.util.List results = response.getBody();
+            java.util.List results = restClient.get()
+                    .uri(NOMINATIM_SEARCH_PATH, address)
+                    .retrieve()
+                    .body(java.util.List.class);
             if (results != null && !results.isEmpty()) {
                 Object first = results.get(0);
                 if (first instanceof Map result) {
@@ -104,6 +83,7 @@ public class GeocodingService {
             // Fall back to null so the caller can handle failures gracefully.
         }
 
+        searchFallbacks.increment();
         return null;
     }
 
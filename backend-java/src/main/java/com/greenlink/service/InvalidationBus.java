@@ -0,0 +1,263 @@
+package com.greenlink.service;
+
+import com.greenlink.config.PgNotifications;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cross-node invalidation for in-process caches. Writers publish (entity, organization, id)
+ * changes; subscribers on this node get them right after commit, and other nodes get them
+ * through NOTIFY on {@value #CHANNEL}. Outgoing changes are buffered for flush-interval and
+ * coalesced: duplicates collapse, and more than coalesce-threshold ids for one entity and
+ * organization become a single "all of them" change (id null), so a write burst costs a few
+ * notifications rather than one per row. A batch that fails to send is re-queued and retried
+ * after retry-interval. Sends happen after commit, so a node that dies inside that window loses
+ * its last batch; caches should still bound their entries' lifetime. Every entity the services
+ * write is published, whether or not a cache on this build subscribes to it yet, so a cache added
+ * later is kept fresh even by nodes still running an older build. The login and token-version
+ * caches are dropped through {@link com.greenlink.security.UserCacheInvalidator} instead, whose
+ * NOTIFY commits with the write: a revocation must not wait out a flush or die with a node's last
+ * batch. USER changes here are for any other per-user cache.
+ */
+@Service
+public class InvalidationBus implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    static final String CHANNEL = "greenlink_invalidation";
+
+    // NOTIFY payloads are limited to 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final String ALL = "*";
+
+    public enum Entity {
+        VEHICLE('V'), DRIVER('D'), ORDER('O'), ROUTE('R'), USER('U');
+
+        private final char code;
+
+        Entity(char code) {
+            this.code = code;
+        }
+
+        private static Entity of(char code) {
+            for (Entity entity : values()) {
+                if (entity.code == code) {
+                    return entity;
+                }
+            }
+            throw new IllegalArgumentException("Unknown entity code " + code);
+        }
+    }
+
+    // A null id means every entity of that kind in the organization
+    public record Change(Entity entity, UUID organizationId, UUID id) {
+
+        public Change {
+            Objects.requireNonNull(entity);
+            Objects.requireNonNull(organizationId);
+        }
+
+        private String toLine() {
+            return entity.code + " " + organizationId + " " + (id == null ? ALL : id);
+        }
+
+        private static Change parse(String line) {
+            String[] parts = line.split(" ");
+            return new Change(Entity.of(parts[0].charAt(0)), UUID.fromString(parts[1]),
+                    ALL.equals(parts[2]) ? null : UUID.fromString(parts[2]));
+        }
+    }
+
+    private final PgNotifications notifications;
+    private final Duration flushInterval;
+    private final Duration retryInterval;
+    private final int coalesceThreshold;
+    private final String node = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final Map<Entity, List<Subscriber>> subscribers = new EnumMap<>(Entity.class);
+    private final Set<Change> pending = new LinkedHashSet<>();
+    private final ScheduledExecutorService flusher;
+    private final Counter published;
+    private final Counter received;
+    private final Counter sent;
+    private boolean flushScheduled;
+
+    public InvalidationBus(
+            PgNotifications notifications,
+            MeterRegistry meterRegistry,
+            @Value("${app.invalidation.flush-interval:PT0.02S}") Duration flushInterval,
+            @Value("${app.invalidation.retry-interval:PT1S}") Duration retryInterval,
+            @Value("${app.invalidation.coalesce-threshold:50}") int coalesceThreshold
+    ) {
+        this.notifications = notifications;
+        this.flushInterval = flushInterval;
+        this.retryInterval = retryInterval;
+        this.coalesceThreshold = coalesceThreshold;
+        for (Entity entity : Entity.values()) {
+            subscribers.put(entity, new CopyOnWriteArrayList<>());
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invalidation-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.published = meterRegistry.counter("greenlink.invalidation.changes", "direction", "published");
+        this.received = meterRegistry.counter("greenlink.invalidation.changes", "direction", "received");
+        this.sent = meterRegistry.counter("greenlink.invalidation.notifications");
+        notifications.subscribe(CHANNEL, this::receive, this::resync);
+    }
+
+    // evictAll runs whenever changes may have been missed (listener reconnect)
+    public void subscribe(Entity entity, Consumer<Change> evict, Runnable evictAll) {
+        subscribers.get(entity).add(new Subscriber(evict, evictAll));
+    }
+
+    public void publish(Entity entity, UUID organizationId, UUID id) {
+        Change change = new Change(entity, organizationId, id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committed(change);
+            }
+        });
+    }
+
+    private void committed(Change change) {
+        published.increment();
+        deliver(change);
+        enqueue(List.of(change), flushInterval);
+    }
+
+    private void enqueue(List<Change> changes, Duration delay) {
+        synchronized (pending) {
+            pending.addAll(changes);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                flusher.schedule(this::flush, delay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void flush() {
+        List<Change> batch;
+        synchronized (pending) {
+            batch = coalesce(pending);
+            pending.clear();
+            flushScheduled = false;
+        }
+        int sentUpTo = 0;
+        for (Payload payload : payloads(batch)) {
+            try {
+                notifications.publish(CHANNEL, payload.text());
+                sent.increment();
+                sentUpTo = payload.end();
+            } catch (RuntimeException ex) {
+                List<Change> unsent = batch.subList(sentUpTo, batch.size());
+                log.warn("Could not publish {} cache invalidations, retrying in {}: {}", unsent.size(), retryInterval, ex.getMessage());
+                enqueue(unsent, retryInterval);
+                return;
+            }
+        }
+    }
+
+    private List<Change> coalesce(Set<Change> changes) {
+        Map<Change, List<Change>> byGroup = new HashMap<>();
+        for (Change change : changes) {
+            byGroup.computeIfAbsent(new Change(change.entity(), change.organizationId(), null), group -> new ArrayList<>())
+                    .add(change);
+        }
+        List<Change> batch = new ArrayList<>();
+        for (Map.Entry<Change, List<Change>> group : byGroup.entrySet()) {
+            // A wildcard already covers every id in its group
+            if (group.getValue().size() > coalesceThreshold || group.getValue().contains(group.getKey())) {
+                batch.add(group.getKey());
+            } else {
+                batch.addAll(group.getValue());
+            }
+        }
+        return batch;
+    }
+
+    // First line is the sending node, so it can skip its own notifications
+    private List<Payload> payloads(List<Change> batch) {
+        List<Payload> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(node);
+        for (int i = 0; i < batch.size(); i++) {
+            String line = batch.get(i).toLine();
+            if (payload.length() + 1 + line.length() > MAX_PAYLOAD_BYTES) {
+                payloads.add(new Payload(payload.toString(), i));
+                payload = new StringBuilder(node);
+            }
+            payload.append('\n').append(line);
+        }
+        if (payload.length() > node.length()) {
+            payloads.add(new Payload(payload.toString(), batch.size()));
+        }
+        return payloads;
+    }
+
+    private void receive(String payload) {
+        String[] lines = payload.split("\n");
+        if (lines[0].equals(node)) {
+            return;
+        }
+        for (int i = 1; i < lines.length; i++) {
+            received.increment();
+            deliver(Change.parse(lines[i]));
+        }
+    }
+
+    private void deliver(Change change) {
+        for (Subscriber subscriber : subscribers.get(change.entity())) {
+            try {
+                subscriber.evict().accept(change);
+            } catch (RuntimeException ex) {
+                log.warn("Cache invalidation for {} failed", change, ex);
+            }
+        }
+    }
+
+    private void resync() {
+        subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.evictAll().run()));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private record Subscriber(Consumer<Change> evict, Runnable evictAll) {
+    }
+
+    // end: index in the batch just past the payload's last change
+    private record Payload(String text, int end) {
+    }
+}
@@ -0,0 +1,286 @@
+package com.greenlink.service;
+
+import com.greenlink.config.MetricsConfig;
+import com.greenlink.config.PgNotifications;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cluster-wide optimize coordination through the optimize_jobs table. Per organization, claiming a
+ * job and writing its plan both run under pg_advisory_xact_lock, so at most one node solves an
+ * organization at a time; other callers attach to the running job and share its result. Owners
+ * heartbeat their jobs; a job whose heartbeat stops (node died mid-solve) is taken over, and the
+ * old owner's plan is then rejected at write time. Heartbeats run on their own thread, so a slow
+ * job on the shared @Scheduled executor cannot hold them back long enough to get a live job taken over.
+ */
+@Component
+public class OptimizeJobs implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimizeJobs.class);
+
+    static final String CHANNEL = "greenlink_optimize_jobs";
+
+    // First key of the two-key advisory lock, so these locks cannot collide with other users
+    private static final int LOCK_NAMESPACE = 0x6f707469;
+    private static final int CLAIM_ATTEMPTS = 50;
+    private static final long CLAIM_RETRY_MS = 100;
+    private static final long POLL_INTERVAL_MS = 1000;
+
+    private static final String RUNNING = "RUNNING";
+    private static final String SUCCEEDED = "SUCCEEDED";
+    private static final String FAILED = "FAILED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final PgNotifications notifications;
+    private final MeterRegistry meterRegistry;
+    private final Duration staleAfter;
+    private final Duration waitTimeout;
+    private final Duration retention;
+    private final String node;
+    private final Set<UUID> owned = ConcurrentHashMap.newKeySet();
+    // One signal per waiting caller, so each can deregister its own without stranding the others
+    private final Map<UUID, Set<CompletableFuture<Void>>> waiters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeats;
+
+    public OptimizeJobs(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            PgNotifications notifications,
+            MeterRegistry meterRegistry,
+            @Value("${app.optimize.jobs.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+            @Value("${app.optimize.jobs.stale-after:PT1M}") Duration staleAfter,
+            @Value("${app.optimize.jobs.wait-timeout:PT6M}") Duration waitTimeout,
+            @Value("${app.optimize.jobs.retention:P7D}") Duration retention
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.notifications = notifications;
+        this.meterRegistry = meterRegistry;
+        this.staleAfter = staleAfter;
+        this.waitTimeout = waitTimeout;
+        this.retention = retention;
+        this.node = System.getenv().getOrDefault("HOSTNAME", "local") + ":" + ProcessHandle.current().pid();
+        notifications.subscribe(CHANNEL, payload -> wake(UUID.fromString(payload)), this::wakeAll);
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "optimize-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    record Claim(UUID jobId, boolean owner) {
+    }
+
+    record Job(UUID id, String status, String outcome, Integer errorStatus, String error) {
+    }
+
+    // Either a new job owned by this caller, or the organization's running job to attach to
+    Claim claim(UUID organizationId) {
+        for (int attempt = 1; ; attempt++) {
+            Claim claim = transaction.execute(tx -> tryClaim(organizationId));
+            if (claim != null) {
+                meterRegistry.counter("greenlink.optimize.jobs", MetricsConfig.ORGANIZATION_TAG, organizationId.toString(),
+                        "claim", claim.owner() ? "owner" : "attached").increment();
+                return claim;
+            }
+            if (attempt == CLAIM_ATTEMPTS) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Optimization is busy. Please try again.");
+            }
+            sleep(CLAIM_RETRY_MS);
+        }
+    }
+
+    // Null when another node holds the organization's lock (claiming or writing a plan) right now
+    private Claim tryClaim(UUID organizationId) {
+        if (!tryLock(organizationId)) {
+            return null;
+        }
+        List<Map<String, Object>> running = jdbcTemplate.queryForList(
+                "select id, heartbeat_at < now() - make_interval(secs => ?) as stale from optimize_jobs "
+                        + "where organization_id = ? and status = 'RUNNING'",
+                (double) staleAfter.toSeconds(), organizationId);
+        if (!running.isEmpty()) {
+            UUID runningId = (UUID) running.get(0).get("id");
+            if (!Boolean.TRUE.equals(running.get(0).get("stale"))) {
+                return new Claim(runningId, false);
+            }
+            log.warn("Optimize job {} for org {} stopped heartbeating; taking over", runningId, organizationId);
+            finish(runningId, FAILED, "abandoned", null, HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "The node running this optimization stopped responding. Please run it again.");
+        }
+        UUID jobId = UUID.randomUUID();
+        jdbcTemplate.update(
+                "insert into optimize_jobs (id, organization_id, status, node, started_at, heartbeat_at) "
+                        + "values (?, ?, 'RUNNING', ?, now(), now())",
+                jobId, organizationId, node);
+        owned.add(jobId);
+        return new Claim(jobId, true);
+    }
+
+    // Call first inside the plan's write transaction: waits out a concurrent claim, then checks the job was not taken over
+    void fence(UUID jobId, UUID organizationId) {
+        jdbcTemplate.queryForObject("select pg_advisory_xact_lock(?, hashtext(?))::text",
+                String.class, LOCK_NAMESPACE, organizationId.toString());
+        String status = jdbcTemplate.queryForObject("select status from optimize_jobs where id = ?", String.class, jobId);
+        if (!RUNNING.equals(status)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "This optimization was taken over by another node. Please run it again.");
+        }
+    }
+
+    // Joins the caller's transaction when there is one, so attached callers see the plan and its job together
+    void succeeded(UUID jobId, String outcome, int routeCount) {
+        finish(jobId, SUCCEEDED, outcome, routeCount, null, null);
+    }
+
+    void failed(UUID jobId, RuntimeException ex) {
+        int status = ex instanceof ResponseStatusException rse ? rse.getStatusCode().value() : HttpStatus.INTERNAL_SERVER_ERROR.value();
+        String message = ex instanceof ResponseStatusException rse && rse.getReason() != null
+                ? rse.getReason()
+                : "Optimization failed. Please try again.";
+        try {
+            transaction.executeWithoutResult(tx -> finish(jobId, FAILED, "error", null, status, message));
+        } catch (RuntimeException finishFailed) {
+            // Left RUNNING, the job is taken over once its heartbeat goes stale
+            log.warn("Could not mark optimize job {} failed: {}", jobId, finishFailed.getMessage());
+        }
+    }
+
+    private void finish(UUID jobId, String status, String outcome, Integer routeCount, Integer errorStatus, String error) {
+        jdbcTemplate.update(
+                "update optimize_jobs set status = ?, outcome = ?, route_count = ?, error_status = ?, error = ?, "
+                        + "finished_at = now() where id = ? and status = 'RUNNING'",
+                status, outcome, routeCount, errorStatus, error, jobId);
+        notifications.publish(CHANNEL, jobId.toString());
+        owned.remove(jobId);
+    }
+
+    // Blocks until the job finishes, wait-timeout passes or callerDeadline (System.nanoTime()) is reached,
+    // whichever comes first; notifications wake waiters early, polling covers missed ones
+    Job await(UUID jobId, long callerDeadline) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        if (callerDeadline - deadline < 0) {
+            deadline = callerDeadline;
+        }
+        while (true) {
+            CompletableFuture<Void> signal = new CompletableFuture<>();
+            waiters.compute(jobId, (id, signals) -> {
+                Set<CompletableFuture<Void>> registered = signals == null ? ConcurrentHashMap.newKeySet() : signals;
+                registered.add(signal);
+                return registered;
+            });
+            try {
+                Job job = find(jobId);
+                if (!RUNNING.equals(job.status())) {
+                    return job;
+                }
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "An optimization for your organization is still running. Please try again later.");
+                }
+                signal.get(Math.min(remaining, POLL_INTERVAL_MS), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                // Poll again
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for optimization");
+            } finally {
+                waiters.computeIfPresent(jobId, (id, signals) -> {
+                    signals.remove(signal);
+                    return signals.isEmpty() ? null : signals;
+                });
+            }
+        }
+    }
+
+    private Job find(UUID jobId) {
+        return jdbcTemplate.queryForObject(
+                "select id, status, outcome, error_status, error from optimize_jobs where id = ?",
+                (rs, rowNum) -> new Job(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("status"),
+                        rs.getString("outcome"),
+                        rs.getObject("error_status", Integer.class),
+                        rs.getString("error")),
+                jobId);
+    }
+
+    private void heartbeat() {
+        if (owned.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("update optimize_jobs set heartbeat_at = now() where id = any(?) and status = 'RUNNING'",
+                    (Object) owned.toArray(UUID[]::new));
+        } catch (RuntimeException ex) {
+            // Caught so the next beat is still scheduled
+            log.warn("Optimize job heartbeat failed: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.optimize.jobs.purge-interval:PT1H}")
+    public void purgeFinished() {
+        jdbcTemplate.update("delete from optimize_jobs where finished_at < now() - make_interval(secs => ?)",
+                (double) retention.toSeconds());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        heartbeats.shutdown();
+        heartbeats.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private boolean tryLock(UUID organizationId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?, hashtext(?))",
+                Boolean.class, LOCK_NAMESPACE, organizationId.toString()));
+    }
+
+    private void wake(UUID jobId) {
+        Set<CompletableFuture<Void>> signals = waiters.remove(jobId);
+        if (signals != null) {
+            signals.forEach(signal -> signal.complete(null));
+        }
+    }
+
+    private void wakeAll() {
+        waiters.keySet().forEach(this::wake);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while claiming optimization");
+        }
+    }
+}
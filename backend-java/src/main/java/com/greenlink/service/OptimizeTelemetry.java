@@ -0,0 +1,171 @@
+package com.greenlink.service;
+
+import com.greenlink.config.MetricsConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Metrics, spans and the per-run log line for route optimization. A run is one greenlink.optimize
+ * observation (tags org, outcome) with a greenlink.optimize.phase child per phase (tags org, phase),
+ * so solver calls made inside a phase nest under it when a tracer is present. The summary line is
+ * logged at INFO for failures, slow runs and a sample of the rest, otherwise at DEBUG.
+ */
+@Component
+public class OptimizeTelemetry {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimizeTelemetry.class);
+
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+    private final double logSampleRate;
+    private final Duration slowThreshold;
+
+    public OptimizeTelemetry(
+            ObservationRegistry observationRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${app.optimize.log.sample-rate:0.1}") double logSampleRate,
+            @Value("${app.optimize.log.slow-threshold:PT5S}") Duration slowThreshold
+    ) {
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+        this.logSampleRate = logSampleRate;
+        this.slowThreshold = slowThreshold;
+    }
+
+    Run start(UUID organizationId) {
+        return new Run(organizationId.toString());
+    }
+
+    final class Run {
+
+        private final String organization;
+        private final Observation observation;
+        private final Observation.Scope scope;
+        private final long startedNanos = System.nanoTime();
+        private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        private String outcome = "planned";
+        private int orders;
+        private int vehicles;
+        private int routes;
+        private int assignedStops;
+        private int skippedStops;
+
+        private Run(String organization) {
+            this.organization = organization;
+            this.observation = Observation.createNotStarted("greenlink.optimize", observationRegistry)
+                    .lowCardinalityKeyValue(MetricsConfig.ORGANIZATION_TAG, organization)
+                    .start();
+            this.scope = observation.openScope();
+        }
+
+        <T> T phase(String name, Supplier<T> work) {
+            long started = System.nanoTime();
+            try {
+                return Observation.createNotStarted("greenlink.optimize.phase", observationRegistry)
+                        .parentObservation(observation)
+                        .lowCardinalityKeyValue(MetricsConfig.ORGANIZATION_TAG, organization)
+                        .lowCardinalityKeyValue("phase", name)
+                        .observe(work);
+            } finally {
+                phaseNanos.merge(name, System.nanoTime() - started, Long::sum);
+            }
+        }
+
+        void problem(int orders, int vehicles) {
+            this.orders = orders;
+            this.vehicles = vehicles;
+            DistributionSummary.builder("greenlink.optimize.problem.size")
+                    .tags(MetricsConfig.ORGANIZATION_TAG, organization, "kind", "orders")
+                    .register(meterRegistry)
+                    .record(orders);
+            DistributionSummary.builder("greenlink.optimize.problem.size")
+                    .tags(MetricsConfig.ORGANIZATION_TAG, organization, "kind", "vehicles")
+                    .register(meterRegistry)
+                    .record(vehicles);
+        }
+
+        void outcome(String outcome) {
+            this.outcome = outcome;
+        }
+
+        // The plan came from FallbackPlanner; reason is deadline, breaker_open or solver_error
+        void degraded(String reason) {
+            this.outcome = "degraded";
+            Counter.builder("greenlink.optimize.fallback")
+                    .tag(MetricsConfig.ORGANIZATION_TAG, organization)
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        void route(int assignedStops, int skippedStops) {
+            this.routes++;
+            this.assignedStops += assignedStops;
+            this.skippedStops += skippedStops;
+        }
+
+        void failed(RuntimeException ex) {
+            boolean conflict = ex instanceof ResponseStatusException status
+                    && status.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT);
+            outcome = conflict ? "conflict" : "error";
+            observation.error(ex);
+        }
+
+        void finish() {
+            scope.close();
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
+            if (skippedStops > 0) {
+                // Stops the solver returned with unknown or malformed order ids
+                Counter.builder("greenlink.optimize.stops.skipped")
+                        .tag(MetricsConfig.ORGANIZATION_TAG, organization)
+                        .register(meterRegistry)
+                        .increment(skippedStops);
+            }
+            logSummary(System.nanoTime() - startedNanos);
+        }
+
+        private void logSummary(long totalNanos) {
+            boolean notable = !"planned".equals(outcome) && !"empty".equals(outcome)
+                    || skippedStops > 0
+                    || totalNanos >= slowThreshold.toNanos()
+                    || ThreadLocalRandom.current().nextDouble() < logSampleRate;
+            LoggingEventBuilder event = notable ? log.atInfo() : log.atDebug();
+            event = event.addKeyValue("org", organization)
+                    .addKeyValue("outcome", outcome)
+                    .addKeyValue("orders", orders)
+                    .addKeyValue("vehicles", vehicles)
+                    .addKeyValue("routes", routes)
+                    .addKeyValue("assigned_stops", assignedStops)
+                    .addKeyValue("skipped_stops", skippedStops)
+                    .addKeyValue("total_ms", millis(totalNanos));
+            StringBuilder phases = new StringBuilder();
+            for (Map.Entry<String, Long> phase : phaseNanos.entrySet()) {
+                event = event.addKeyValue(phase.getKey() + "_ms", millis(phase.getValue()));
+                phases.append(phases.isEmpty() ? "" : " ").append(phase.getKey()).append('=').append(millis(phase.getValue()));
+            }
+            event.log("optimize outcome={} org={} orders={} vehicles={} routes={} assigned={} skipped={} total_ms={} phases_ms=[{}]",
+                    outcome, organization, orders, vehicles, routes, assignedStops, skippedStops, millis(totalNanos), phases);
+        }
+    }
+
+    private static long millis(long nanos) {
+        return Duration.ofNanos(nanos).toMillis();
+    }
+}
@@ -0,0 +1,69 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.KeysetCursor;
+import com.greenlink.dto.KeysetPage;
+import com.greenlink.model.ArchivedOrder;
+import com.greenlink.repository.ArchivedOrderRepository;
+import com.greenlink.security.CurrentUserService;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Lookups over archived (delivered and aged-out) orders; live orders stay in OrderService.
+@Service
+public class OrderHistoryService {
+
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final CurrentUserService currentUserService;
+
+    public OrderHistoryService(ArchivedOrderRepository archivedOrderRepository, CurrentUserService currentUserService) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.currentUserService = currentUserService;
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<ArchivedOrder> getHistoryPage(
+            LocalDateTime deliveredFrom,
+            LocalDateTime deliveredTo,
+            String cursor,
+            Integer limit
+    ) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // History cursors carry delivered_at in the timestamp slot
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        List<ArchivedOrder> rows = archivedOrderRepository.findPage(
+                organizationId,
+                deliveredFrom,
+                deliveredTo,
+                after == null ? null : after.createdAt(),
+                after == null ? null : after.id(),
+                Limit.of(pageSize + 1)
+        );
+
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+
+        List<ArchivedOrder> page = rows.subList(0, pageSize);
+        ArchivedOrder last = page.get(pageSize - 1);
+        return new KeysetPage<>(page, new KeysetCursor(last.getDeliveredAt(), last.getId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public ArchivedOrder getArchivedOrder(UUID id) {
+        return archivedOrderRepository.findByIdAndOrganizationId(id, currentUserService.requireOrganizationId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Archived order not found."));
+    }
+}
@@ -1,36 +1,115 @@
 package com.greenlink.service;
 
+import com.greenlink.dto.KeysetCursor;
+import com.greenlink.dto.KeysetPage;
+import com.greenlink.dto.OrderSummary;
 import com.greenlink.model.DeliveryOrder;
 import com.greenlink.repository.OrderRepository;
 import com.greenlink.security.CurrentUserService;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
 
     private static final String DEFAULT_STATUS = "UNASSIGNED";
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FLUSH_EVERY = 500;
 
     private final OrderRepository orderRepository;
     private final GeocodingService geocodingService;
     private final CurrentUserService currentUserService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonMapper jsonMapper;
+    private final InvalidationBus invalidationBus;
 
     public OrderService(
             OrderRepository orderRepository,
             GeocodingService geocodingService,
-            CurrentUserService currentUserService
+            CurrentUserService currentUserService,
+            PlatformTransactionManager transactionManager,
+            JsonMapper jsonMapper,
+            InvalidationBus invalidationBus
     ) {
         this.orderRepository = orderRepository;
         this.geocodingService = geocodingService;
         this.currentUserService = currentUserService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonMapper = jsonMapper;
+        this.invalidationBus = invalidationBus;
     }
 
-    public List<DeliveryOrder> getAllOrders() {
-        return orderRepository.findByOrganizationId(currentUserService.requireOrganizationId());
+    @Transactional(readOnly = true)
+    public KeysetPage<OrderSummary> getOrderPage(
+            String status,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo,
+            String cursor,
+            Integer limit
+    ) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        // Ask for one extra row to learn whether another page exists.
+        List<OrderSummary> rows = orderRepository.findSummaryPage(
+                organizationId,
+                status,
+                createdFrom,
+                createdTo,
+                after == null ? null : after.createdAt(),
+                after == null ? null : after.id(),
+                Limit.of(pageSize + 1)
+        );
+
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+
+        List<OrderSummary> page = rows.subList(0, pageSize);
+        OrderSummary last = page.get(pageSize - 1);
+        return new KeysetPage<>(page, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    // The organization is resolved here, on the request thread; the body itself
+    // runs later on the async executor inside its own read-only transaction.
+    public StreamingResponseBody streamOrders(String status, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+
+        return outputStream -> readOnlyTransaction.executeWithoutResult(tx -> {
+            try (Stream<OrderSummary> rows = orderRepository.streamSummaries(organizationId, status, createdFrom, createdTo)) {
+                int written = 0;
+                Iterator<OrderSummary> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(jsonMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                    if (++written % STREAM_FLUSH_EVERY == 0) {
+                        outputStream.flush();
+                    }
+                }
+                outputStream.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
     }
 
     public DeliveryOrder createOrder(DeliveryOrder order) {
@@ -79,7 +158,9 @@ public class OrderService {
             );
         }
 
-        return orderRepository.save(order);
+        DeliveryOrder saved = orderRepository.save(order);
+        invalidationBus.publish(InvalidationBus.Entity.ORDER, saved.getOrganizationId(), saved.getId());
+        return saved;
     }
 
     public void deleteOrder(java.util.UUID orderId) {
@@ -89,5 +170,6 @@ public class OrderService {
         ).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found."));
 
         orderRepository.delete(order);
+        invalidationBus.publish(InvalidationBus.Entity.ORDER, order.getOrganizationId(), orderId);
     }
 }
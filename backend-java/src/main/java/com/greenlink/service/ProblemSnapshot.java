@@ -0,0 +1,176 @@
+package com.greenlink.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Everything optimize reads from the database, column by column: one primitive array per field,
+ * orders indexed 0..orderCount-1 and vehicles 0..vehicleCount-1. Loaded by projection rather than
+ * as entities, so a large organization costs a handful of flat arrays instead of a managed entity
+ * with boxed fields and a route association per row. Ids are kept as their two halves.
+ */
+final class ProblemSnapshot {
+
+    private static final String ORDERS_SQL = """
+            select id, latitude, longitude, weight_kg, service_duration_min, version
+            from delivery_orders
+            where organization_id = ?
+            """;
+
+    private static final String VEHICLES_SQL = """
+            select id, capacity_kg, start_lat, start_lon, version
+            from vehicles
+            where organization_id = ?
+            """;
+
+    final UUID organizationId;
+
+    final int orderCount;
+    final long[] orderIdHigh;
+    final long[] orderIdLow;
+    final double[] orderLat;
+    final double[] orderLon;
+    final int[] orderWeightKg;
+    final int[] orderServiceMin;
+    final long[] orderVersion;
+
+    final int vehicleCount;
+    final long[] vehicleIdHigh;
+    final long[] vehicleIdLow;
+    final int[] vehicleCapacityKg;
+    final double[] vehicleStartLat; // NaN when the vehicle has no start
+    final double[] vehicleStartLon;
+    final long[] vehicleVersion;
+
+    ProblemSnapshot(UUID organizationId, OrderColumns orders, VehicleColumns vehicles) {
+        this.organizationId = organizationId;
+        this.orderCount = orders.size;
+        this.orderIdHigh = Arrays.copyOf(orders.idHigh, orders.size);
+        this.orderIdLow = Arrays.copyOf(orders.idLow, orders.size);
+        this.orderLat = Arrays.copyOf(orders.lat, orders.size);
+        this.orderLon = Arrays.copyOf(orders.lon, orders.size);
+        this.orderWeightKg = Arrays.copyOf(orders.weightKg, orders.size);
+        this.orderServiceMin = Arrays.copyOf(orders.serviceMin, orders.size);
+        this.orderVersion = Arrays.copyOf(orders.version, orders.size);
+        this.vehicleCount = vehicles.size;
+        this.vehicleIdHigh = Arrays.copyOf(vehicles.idHigh, vehicles.size);
+        this.vehicleIdLow = Arrays.copyOf(vehicles.idLow, vehicles.size);
+        this.vehicleCapacityKg = Arrays.copyOf(vehicles.capacityKg, vehicles.size);
+        this.vehicleStartLat = Arrays.copyOf(vehicles.startLat, vehicles.size);
+        this.vehicleStartLon = Arrays.copyOf(vehicles.startLon, vehicles.size);
+        this.vehicleVersion = Arrays.copyOf(vehicles.version, vehicles.size);
+    }
+
+    // Run inside a transaction with a fetch-size template, so rows stream instead of being buffered by the driver
+    static ProblemSnapshot load(JdbcTemplate cursorTemplate, UUID organizationId) {
+        OrderColumns orders = new OrderColumns();
+        cursorTemplate.query(ORDERS_SQL, rs -> {
+            UUID id = rs.getObject(1, UUID.class);
+            orders.add(id, rs.getDouble(2), rs.getDouble(3), rs.getInt(4), rs.getInt(5), rs.getLong(6));
+        }, organizationId);
+
+        VehicleColumns vehicles = new VehicleColumns();
+        cursorTemplate.query(VEHICLES_SQL, rs -> {
+            UUID id = rs.getObject(1, UUID.class);
+            double startLat = rs.getDouble(3);
+            startLat = rs.wasNull() ? Double.NaN : startLat;
+            double startLon = rs.getDouble(4);
+            startLon = rs.wasNull() ? Double.NaN : startLon;
+            vehicles.add(id, rs.getInt(2), startLat, startLon, rs.getLong(5));
+        }, organizationId);
+
+        return new ProblemSnapshot(organizationId, orders, vehicles);
+    }
+
+    UUID orderId(int i) {
+        return new UUID(orderIdHigh[i], orderIdLow[i]);
+    }
+
+    UUID vehicleId(int i) {
+        return new UUID(vehicleIdHigh[i], vehicleIdLow[i]);
+    }
+
+    // True if every order and vehicle in the snapshot still exists at the same version
+    boolean unchangedIn(Map<UUID, Long> currentOrderVersions, Map<UUID, Long> currentVehicleVersions) {
+        for (int i = 0; i < orderCount; i++) {
+            Long current = currentOrderVersions.get(orderId(i));
+            if (current == null || current != orderVersion[i]) {
+                return false;
+            }
+        }
+        for (int v = 0; v < vehicleCount; v++) {
+            Long current = currentVehicleVersions.get(vehicleId(v));
+            if (current == null || current != vehicleVersion[v]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Growable columns for loading; the snapshot keeps trimmed copies
+    static final class OrderColumns {
+
+        private int size;
+        private long[] idHigh = new long[64];
+        private long[] idLow = new long[64];
+        private double[] lat = new double[64];
+        private double[] lon = new double[64];
+        private int[] weightKg = new int[64];
+        private int[] serviceMin = new int[64];
+        private long[] version = new long[64];
+
+        void add(UUID id, double latitude, double longitude, int weight, int service, long rowVersion) {
+            if (size == idHigh.length) {
+                int grown = size * 2;
+                idHigh = Arrays.copyOf(idHigh, grown);
+                idLow = Arrays.copyOf(idLow, grown);
+                lat = Arrays.copyOf(lat, grown);
+                lon = Arrays.copyOf(lon, grown);
+                weightKg = Arrays.copyOf(weightKg, grown);
+                serviceMin = Arrays.copyOf(serviceMin, grown);
+                version = Arrays.copyOf(version, grown);
+            }
+            idHigh[size] = id.getMostSignificantBits();
+            idLow[size] = id.getLeastSignificantBits();
+            lat[size] = latitude;
+            lon[size] = longitude;
+            weightKg[size] = weight;
+            serviceMin[size] = service;
+            version[size] = rowVersion;
+            size++;
+        }
+    }
+
+    static final class VehicleColumns {
+
+        private int size;
+        private long[] idHigh = new long[16];
+        private long[] idLow = new long[16];
+        private int[] capacityKg = new int[16];
+        private double[] startLat = new double[16];
+        private double[] startLon = new double[16];
+        private long[] version = new long[16];
+
+        void add(UUID id, int capacity, double latitude, double longitude, long rowVersion) {
+            if (size == idHigh.length) {
+                int grown = size * 2;
+                idHigh = Arrays.copyOf(idHigh, grown);
+                idLow = Arrays.copyOf(idLow, grown);
+                capacityKg = Arrays.copyOf(capacityKg, grown);
+                startLat = Arrays.copyOf(startLat, grown);
+                startLon = Arrays.copyOf(startLon, grown);
+                version = Arrays.copyOf(version, grown);
+            }
+            idHigh[size] = id.getMostSignificantBits();
+            idLow[size] = id.getLeastSignificantBits();
+            capacityKg[size] = capacity;
+            startLat[size] = latitude;
+            startLon[size] = longitude;
+            version[size] = rowVersion;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.KeysetCursor;
+import com.greenlink.dto.KeysetPage;
+import com.greenlink.dto.RouteStopSummary;
+import com.greenlink.dto.RouteSummary;
+import com.greenlink.repository.RouteRepository;
+import com.greenlink.security.CurrentUserService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class RouteService {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final RouteRepository routeRepository;
+    private final CurrentUserService currentUserService;
+
+    public RouteService(RouteRepository routeRepository, CurrentUserService currentUserService) {
+        this.routeRepository = routeRepository;
+        this.currentUserService = currentUserService;
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<RouteSummary> getRoutePage(String cursor, Integer limit, boolean expandStops) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        List<RouteSummary> rows = routeRepository.findSummaryPage(
+                organizationId,
+                after == null ? null : after.createdAt(),
+                after == null ? null : after.id(),
+                Limit.of(pageSize + 1)
+        );
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            RouteSummary last = rows.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        if (expandStops && !rows.isEmpty()) {
+            // One extra query for the whole page, never one per route
+            List<UUID> routeIds = rows.stream().map(RouteSummary::getId).toList();
+            Map<UUID, List<RouteStopSummary>> stopsByRoute = routeRepository
+                    .findStopSummaries(organizationId, routeIds)
+                    .stream()
+                    .collect(Collectors.groupingBy(RouteStopSummary::getRouteId));
+            for (RouteSummary row : rows) {
+                row.setStops(stopsByRoute.getOrDefault(row.getId(), List.of()));
+            }
+        }
+
+        return new KeysetPage<>(rows, nextCursor);
+    }
+}
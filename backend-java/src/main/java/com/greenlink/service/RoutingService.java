@@ -1,10 +1,9 @@
 package com.greenlink.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.greenlink.dto.OrderDTO;
-import com.greenlink.dto.RouteRequest;
+import com.greenlink.config.OutboundHttp;
 import com.greenlink.dto.RouteResponse;
-import com.greenlink.dto.VehicleDTO;
 import com.greenlink.model.DeliveryOrder;
 import com.greenlink.model.Route;
 import com.greenlink.model.Vehicle;
@@ -12,144 +11,356 @@ import com.greenlink.repository.OrderRepository;
 import com.greenlink.repository.RouteRepository;
 import com.greenlink.repository.VehicleRepository;
 import com.greenlink.security.CurrentUserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.beans.factory.annotation.Value;
 
-import java.net.http.HttpClient;
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 public class RoutingService {
 
+    private static final Logger log = LoggerFactory.getLogger(RoutingService.class);
+
+    // Solver wire format; shared with the benchmarks (src/jmh) so both measure the same configuration
+    static final ObjectMapper SOLVER_MAPPER = new ObjectMapper();
+
+    // Milliseconds the caller is willing to wait for optimize; the solver is sent what is left of it
+    public static final String TIME_BUDGET_HEADER = "X-Time-Budget-Ms";
+
+    private static final int SNAPSHOT_FETCH_SIZE = 2000;
+
+    private static final String PLAN_CONFLICT_MESSAGE =
+            "Orders or vehicles changed while optimizing. Please run the optimization again.";
+
     private final VehicleRepository vehicleRepository;
     private final OrderRepository orderRepository;
     private final RouteRepository routeRepository;
     private final RestClient restClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JdbcTemplate cursorTemplate;
     private final CurrentUserService currentUserService;
+    private final TransactionTemplate primaryReadTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final OptimizeTelemetry optimizeTelemetry;
+    private final SolverRecorder solverRecorder;
+    private final OptimizeJobs optimizeJobs;
+    private final InvalidationBus invalidationBus;
+    private final SolverCircuitBreaker solverBreaker;
+    private final Duration defaultBudget;
+    private final Duration maxBudget;
+    private final Duration fallbackReserve;
 
     public RoutingService(VehicleRepository vehicleRepository,
                           OrderRepository orderRepository,
                           RouteRepository routeRepository,
                           CurrentUserService currentUserService,
-                          @Value("${app.solver.base-url:http://127.0.0.1:8000}") String solverBaseUrl) {
+                          PlatformTransactionManager transactionManager,
+                          DataSource dataSource,
+                          OutboundHttp outboundHttp,
+                          OptimizeTelemetry optimizeTelemetry,
+                          SolverRecorder solverRecorder,
+                          OptimizeJobs optimizeJobs,
+                          InvalidationBus invalidationBus,
+                          SolverCircuitBreaker solverBreaker,
+                          @Value("${app.solver.base-url:http://127.0.0.1:8000}") String solverBaseUrl,
+                          @Value("${app.optimize.deadline.default-budget:PT2M}") Duration defaultBudget,
+                          @Value("${app.optimize.deadline.max-budget:PT5M}") Duration maxBudget,
+                          @Value("${app.optimize.deadline.fallback-reserve:PT5S}") Duration fallbackReserve) {
         this.vehicleRepository = vehicleRepository;
         this.orderRepository = orderRepository;
         this.routeRepository = routeRepository;
         this.currentUserService = currentUserService;
-
-        // Create HttpClient that uses HTTP/1.1 (not HTTP/2)
-        // This prevents protocol upgrade issues with FastAPI/Uvicorn
-        HttpClient httpClient = HttpClient.newBuilder()
-                .version(HttpClient.Version.HTTP_1_1)
-                .build();
-
-        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
-
-        // Pointing to your Python FastAPI server
-        this.restClient = RestClient.builder()
-            .baseUrl(solverBaseUrl)
-                .requestFactory(requestFactory)
-                .build();
+        // Deliberately not read-only: read-only transactions go to a replica, and optimize must see
+        // every order committed before it, as must attached callers reading the plan just written
+        this.primaryReadTransaction = new TransactionTemplate(transactionManager);
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(SNAPSHOT_FETCH_SIZE);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.optimizeTelemetry = optimizeTelemetry;
+        this.solverRecorder = solverRecorder;
+        this.optimizeJobs = optimizeJobs;
+        this.invalidationBus = invalidationBus;
+        this.solverBreaker = solverBreaker;
+        this.defaultBudget = defaultBudget;
+        this.maxBudget = maxBudget;
+        this.fallbackReserve = fallbackReserve;
+
+        // Pooled HTTP/1.1 client (app.http.destinations.solver); keep http2 off, Uvicorn mishandles the h2c upgrade
+        this.restClient = outboundHttp.restClient("solver", solverBaseUrl).build();
     }
 
-    @Transactional
-    public List<Route> optimizeRoutes() {
-        System.out.println("=== OPTIMIZE ROUTES CALLED ===");
-
+    // budget: how long the caller will wait (null for the default); capped at max-budget
+    public List<Route> optimizeRoutes(Duration budget) {
+        long deadline = System.nanoTime() + budget(budget).toNanos();
         UUID organizationId = currentUserService.requireOrganizationId();
+        // One solve per organization across all nodes; later callers share the running job's result
+        OptimizeJobs.Claim claim = optimizeJobs.claim(organizationId);
+        if (!claim.owner()) {
+            return attach(claim.jobId(), organizationId, deadline);
+        }
+        OptimizeTelemetry.Run run = optimizeTelemetry.start(organizationId);
+        try {
+            return optimize(run, organizationId, claim.jobId(), deadline);
+        } catch (RuntimeException ex) {
+            run.failed(ex);
+            optimizeJobs.failed(claim.jobId(), ex);
+            throw ex;
+        } finally {
+            run.finish();
+        }
+    }
+
+    // Attached callers wait no longer than their own time budget
+    private List<Route> attach(UUID jobId, UUID organizationId, long deadline) {
+        OptimizeJobs.Job job = optimizeJobs.await(jobId, deadline);
+        if (job.errorStatus() != null) {
+            throw new ResponseStatusException(HttpStatus.valueOf(job.errorStatus()), job.error());
+        }
+        if (!"planned".equals(job.outcome()) && !"degraded".equals(job.outcome())) {
+            return List.of();
+        }
+        return primaryReadTransaction.execute(tx -> routeRepository.findWithOrdersByOrganizationId(organizationId));
+    }
 
-        // 1. Fetch Data
-        List<DeliveryOrder> orders = orderRepository.findByOrganizationId(organizationId);
-        List<Vehicle> vehicles = vehicleRepository.findByOrganizationId(organizationId);
+    private Duration budget(Duration requested) {
+        if (requested == null) {
+            return defaultBudget;
+        }
+        if (requested.isNegative() || requested.isZero()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, TIME_BUDGET_HEADER + " must be positive");
+        }
+        return requested.compareTo(maxBudget) > 0 ? maxBudget : requested;
+    }
 
-        System.out.println("Found " + orders.size() + " orders and " + vehicles.size() + " vehicles");
+    private List<Route> optimize(OptimizeTelemetry.Run run, UUID organizationId, UUID jobId, long deadline) {
+        // 1. Snapshot: short transaction on the primary, connection is back in the pool before we call Python
+        ProblemSnapshot snapshot = primaryReadTransaction.execute(
+                tx -> run.phase("load", () -> ProblemSnapshot.load(cursorTemplate, organizationId)));
+        run.problem(snapshot.orderCount, snapshot.vehicleCount);
 
         // Safety check: Don't call Python if we have nothing to optimize
-        if (orders.isEmpty() || vehicles.isEmpty()) {
-            System.out.println("WARNING: Cannot optimize - missing orders or vehicles");
+        if (snapshot.orderCount == 0 || snapshot.vehicleCount == 0) {
+            run.outcome("empty");
+            optimizeJobs.succeeded(jobId, "empty", 0);
             return List.of();
         }
 
-        // 2. Map entities to DTOs (clean objects without JPA annotations)
-        List<OrderDTO> orderDTOs = orders.stream()
-                .map(order -> new OrderDTO(
-                        order.getId().toString(),  // Convert UUID to String
-                        order.getLatitude(),
-                        order.getLongitude(),
-                        order.getWeightKg().doubleValue(),  // Convert Integer to Double
-                        order.getServiceDurationMin().doubleValue()  // Convert Integer to Double
-                ))
-                .collect(Collectors.toList());
-
-        List<VehicleDTO> vehicleDTOs = vehicles.stream()
-                .map(vehicle -> new VehicleDTO(
-                        vehicle.getId().toString(),  // Convert UUID to String
-                        vehicle.getCapacityKg().doubleValue(),  // Convert Integer to Double
-                        vehicle.getStartLat(),
-                        vehicle.getStartLon()
-                ))
-                .collect(Collectors.toList());
-
-        // Create clean DTO request
-        RouteRequest request = new RouteRequest(orderDTOs, vehicleDTOs);
-
-        // DEBUG: Print the JSON that will be sent
-        try {
-            String json = objectMapper.writeValueAsString(request);
-            System.out.println("=== SENDING TO PYTHON ===");
-            System.out.println(json);
-            System.out.println("=========================");
-        } catch (Exception e) {
-            System.err.println("Failed to serialize request: " + e.getMessage());
+        // 2. Solve: no transaction and no database connection held while the solver runs
+        Plan plan = plan(run, snapshot, deadline);
+        RouteResponse response = plan.response();
+
+        // Safety check: Ensure Python actually returned routes
+        if (response == null || response.getRoutes() == null || response.getRoutes().isEmpty()) {
+            run.outcome("no_routes");
+            optimizeJobs.succeeded(jobId, "no_routes", 0);
+            return List.of();
         }
 
-        // 3. Call Python API
-        // Manually serialize to JSON string to ensure proper formatting
-        String jsonBody;
+        // 3. Apply: short write transaction, rejected if orders or vehicles changed since the snapshot
         try {
-            jsonBody = objectMapper.writeValueAsString(request);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to serialize request", e);
+            return writeTransaction.execute(tx -> applyPlan(run, snapshot, plan, jobId));
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, PLAN_CONFLICT_MESSAGE);
         }
+    }
 
-        RouteResponse response = restClient.post()
-                .uri("/solve")
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(jsonBody)  // Pass the JSON string directly
-                .retrieve()
-                .body(RouteResponse.class);
+    // Solver wire format, written straight from the snapshot columns; package-private for the benchmarks (src/jmh)
+    static byte[] solverRequest(ProblemSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + snapshot.orderCount * 160);
+        try (JsonGenerator json = SOLVER_MAPPER.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("orders");
+            for (int i = 0; i < snapshot.orderCount; i++) {
+                json.writeStartObject();
+                json.writeStringField("id", snapshot.orderId(i).toString());
+                json.writeNumberField("latitude", snapshot.orderLat[i]);
+                json.writeNumberField("longitude", snapshot.orderLon[i]);
+                // The solver takes floats
+                json.writeNumberField("weightKg", (double) snapshot.orderWeightKg[i]);
+                json.writeNumberField("serviceDurationMin", (double) snapshot.orderServiceMin[i]);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("vehicles");
+            for (int v = 0; v < snapshot.vehicleCount; v++) {
+                json.writeStartObject();
+                json.writeStringField("id", snapshot.vehicleId(v).toString());
+                json.writeNumberField("capacityKg", (double) snapshot.vehicleCapacityKg[v]);
+                writeCoordinate(json, "startLat", snapshot.vehicleStartLat[v]);
+                writeCoordinate(json, "startLon", snapshot.vehicleStartLon[v]);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        return out.toByteArray();
+    }
 
-        // Safety check: Ensure Python actually returned routes
-        if (response == null || response.getRoutes() == null || response.getRoutes().isEmpty()) {
-            return List.of();
+    private static void writeCoordinate(JsonGenerator json, String name, double value) throws IOException {
+        if (Double.isNaN(value)) {
+            json.writeNullField(name);
+        } else {
+            json.writeNumberField(name, value);
         }
+    }
 
-        // 4. CLEAR EXISTING ROUTES
-        for (DeliveryOrder order : orders) {
-            if (order.getRoute() != null) {
-                order.setRoute(null);
+    // The solver's plan, or FallbackPlanner's (degraded) when the solver is out of time or unavailable
+    private Plan plan(OptimizeTelemetry.Run run, ProblemSnapshot snapshot, long deadline) {
+        // Whatever happens, fallback-reserve is kept for the fallback plan and the write
+        long solverDeadline = deadline - fallbackReserve.toNanos();
+        if (solverDeadline - System.nanoTime() <= 0) {
+            return fallback(run, snapshot, "deadline");
+        }
+        // Serialized before taking the breaker's permit: only the exchange itself may hold it, and that
+        // always reports back, so a failure here cannot strand the breaker half-open
+        byte[] requestBody = run.phase("serialize", () -> {
+            try {
+                return solverRequest(snapshot);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to serialize request", e);
             }
-            if (!"UNASSIGNED".equals(order.getStatus())) {
-                order.setStatus("UNASSIGNED");
+        });
+        if (log.isTraceEnabled()) {
+            log.trace("Solver request for org {}: {}", snapshot.organizationId, new String(requestBody, StandardCharsets.UTF_8));
+        }
+        if (!solverBreaker.tryAcquire()) {
+            return fallback(run, snapshot, "breaker_open");
+        }
+        try {
+            return new Plan(solve(run, snapshot, requestBody, solverDeadline), false);
+        } catch (ResourceAccessException | HttpServerErrorException ex) {
+            boolean late = System.nanoTime() - solverDeadline >= 0;
+            log.warn("Solver {} for org {}; planning in-process: {}",
+                    late ? "missed its deadline" : "failed", snapshot.organizationId, ex.getMessage());
+            return fallback(run, snapshot, late ? "deadline" : "solver_error");
+        }
+    }
+
+    private Plan fallback(OptimizeTelemetry.Run run, ProblemSnapshot snapshot, String reason) {
+        run.degraded(reason);
+        return new Plan(run.phase("fallback", () -> FallbackPlanner.plan(snapshot)), true);
+    }
+
+    // Only call with the breaker acquired; connection failures, aborts at the deadline and 5xx count against it
+    private RouteResponse solve(OptimizeTelemetry.Run run, ProblemSnapshot snapshot, byte[] requestBody, long solverDeadline) {
+        long solveStarted = System.nanoTime();
+        byte[] responseBody;
+        try {
+            responseBody = run.phase("solve", () -> OutboundHttp.withDeadline(solverDeadline, () -> restClient.post()
+                    .uri("/solve")
+                    .header(TIME_BUDGET_HEADER, Long.toString(TimeUnit.NANOSECONDS.toMillis(solverDeadline - solveStarted)))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(requestBody)
+                    .retrieve()
+                    .body(byte[].class)));
+            solverBreaker.success();
+        } catch (RuntimeException ex) {
+            if (ex instanceof ResourceAccessException || ex instanceof HttpServerErrorException) {
+                solverBreaker.failure();
+            } else {
+                solverBreaker.success();
             }
+            solverRecorder.record(snapshot.organizationId, snapshot.orderCount, snapshot.vehicleCount,
+                    requestBody, null, System.nanoTime() - solveStarted, ex);
+            throw ex;
         }
-        orderRepository.saveAll(orders);
-        List<Route> existingRoutes = routeRepository.findByOrganizationId(organizationId);
-        if (!existingRoutes.isEmpty()) {
-            routeRepository.deleteAll(existingRoutes);
+        solverRecorder.record(snapshot.organizationId, snapshot.orderCount, snapshot.vehicleCount,
+                requestBody, responseBody, System.nanoTime() - solveStarted, null);
+
+        if (responseBody == null || responseBody.length == 0) {
+            return null;
         }
+        return run.phase("parse", () -> {
+            try {
+                return SOLVER_MAPPER.readValue(responseBody, RouteResponse.class);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to parse solver response", e);
+            }
+        });
+    }
 
-        // 5. SAVE TO DATABASE
+    private List<Route> applyPlan(OptimizeTelemetry.Run run, ProblemSnapshot snapshot, Plan plan, UUID jobId) {
+        UUID organizationId = snapshot.organizationId;
+        Fleet fleet = run.phase("verify", () -> {
+            optimizeJobs.fence(jobId, organizationId);
+
+            Fleet current = new Fleet(
+                    orderRepository.findByOrganizationId(organizationId),
+                    vehicleRepository.findByOrganizationId(organizationId)
+            );
+
+            // Every order and vehicle the solver saw must still exist, unchanged.
+            // Concurrent writes after this check are caught by @Version at flush.
+            Map<UUID, Long> currentOrderVersions = current.orders().stream()
+                    .collect(Collectors.toMap(DeliveryOrder::getId, DeliveryOrder::getVersion));
+            Map<UUID, Long> currentVehicleVersions = current.vehicles().stream()
+                    .collect(Collectors.toMap(Vehicle::getId, Vehicle::getVersion));
+            if (!snapshot.unchangedIn(currentOrderVersions, currentVehicleVersions)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, PLAN_CONFLICT_MESSAGE);
+            }
+            return current;
+        });
+        List<DeliveryOrder> orders = fleet.orders();
+        List<Vehicle> vehicles = fleet.vehicles();
+
+        // 4. CLEAR EXISTING ROUTES
+        run.phase("clear", () -> {
+            for (DeliveryOrder order : orders) {
+                if (order.getRoute() != null) {
+                    order.setRoute(null);
+                    order.setStopSequence(null);
+                }
+                if (!"UNASSIGNED".equals(order.getStatus())) {
+                    order.setStatus("UNASSIGNED");
+                }
+            }
+            orderRepository.saveAll(orders);
+            List<Route> existingRoutes = routeRepository.findByOrganizationId(organizationId);
+            if (!existingRoutes.isEmpty()) {
+                routeRepository.deleteAll(existingRoutes);
+            }
+            return null;
+        });
+
+        // 5. SAVE TO DATABASE; flushed here so the SQL is timed as persist rather than as the commit
+        return run.phase("persist", () -> {
+            List<Route> savedRoutes = persistRoutes(run, organizationId, orders, vehicles, plan);
+            routeRepository.flush();
+            // Every route and order of the organization was rewritten
+            invalidationBus.publish(InvalidationBus.Entity.ROUTE, organizationId, null);
+            invalidationBus.publish(InvalidationBus.Entity.ORDER, organizationId, null);
+            optimizeJobs.succeeded(jobId, plan.degraded() ? "degraded" : "planned", savedRoutes.size());
+            return savedRoutes;
+        });
+    }
 
+    private List<Route> persistRoutes(OptimizeTelemetry.Run run,
+                                      UUID organizationId,
+                                      List<DeliveryOrder> orders,
+                                      List<Vehicle> vehicles,
+                                      Plan plan) {
         Map<UUID, DeliveryOrder> orderMap = orders.stream()
                 .collect(Collectors.toMap(DeliveryOrder::getId, o -> o));
         Map<String, Vehicle> vehicleMap = vehicles.stream()
@@ -157,7 +368,7 @@ public class RoutingService {
 
         List<Route> savedRoutes = new ArrayList<>();
 
-        for (RouteResponse.RoutePlan routePlan : response.getRoutes()) {
+        for (RouteResponse.RoutePlan routePlan : plan.response().getRoutes()) {
             String vehicleId = routePlan.getVehicleId();
             Vehicle vehicle = vehicleId != null ? vehicleMap.get(vehicleId) : null;
             if (vehicle == null) {
@@ -166,6 +377,7 @@ public class RoutingService {
 
             Route newRoute = new Route();
             newRoute.setStatus("PLANNED");
+            newRoute.setDegraded(plan.degraded());
             newRoute.setVehicle(vehicle);
             newRoute.setOrganizationId(organizationId);
 
@@ -174,9 +386,12 @@ public class RoutingService {
             List<Map<String, Object>> sortedStops = routePlan.getStops();
             if (sortedStops == null) {
                 savedRoutes.add(savedRoute);
+                run.route(0, 0);
                 continue;
             }
 
+            int sequence = 0;
+            int skipped = 0;
             for (Map<String, Object> stop : sortedStops) {
                 String idStr = (String) stop.get("id");
 
@@ -188,19 +403,28 @@ public class RoutingService {
                         if (order != null) {
                             order.setRoute(savedRoute);
                             order.setStatus("ASSIGNED");
+                            order.setStopSequence(sequence++);
                             orderRepository.save(order);
                             savedRoute.getOrders().add(order);
+                        } else {
+                            skipped++;
                         }
                     } catch (IllegalArgumentException e) {
-                        System.err.println("Skipping invalid UUID from Python: " + idStr);
+                        skipped++;
+                        log.debug("Skipping invalid order id from solver: {}", idStr);
                     }
                 }
             }
 
             savedRoutes.add(savedRoute);
-            System.out.println("Route created for vehicle " + vehicle.getId() + " with " + savedRoute.getOrders().size() + " orders assigned");
+            run.route(savedRoute.getOrders().size(), skipped);
+            log.debug("Route created for vehicle {} with {} orders assigned", vehicle.getId(), savedRoute.getOrders().size());
         }
 
         return savedRoutes;
     }
+
+    private record Fleet(List<DeliveryOrder> orders, List<Vehicle> vehicles) {}
+
+    private record Plan(RouteResponse response, boolean degraded) {}
 }
\ No newline at end of file
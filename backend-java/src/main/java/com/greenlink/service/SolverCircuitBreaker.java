@@ -0,0 +1,85 @@
+package com.greenlink.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Consecutive-failure breaker in front of the solver. After failure-threshold failed solves in a
+ * row it opens and optimize goes straight to the fallback planner for open-duration; then a single
+ * trial solve is let through, and its result closes or re-opens the breaker. State is per node and
+ * exported as greenlink.solver.breaker.state (0 closed, 1 open, 2 half-open).
+ */
+@Component
+public class SolverCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(SolverCircuitBreaker.class);
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final MeterRegistry meterRegistry;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public SolverCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${app.solver.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${app.solver.breaker.open-duration:PT30S}") Duration openDuration
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        Gauge.builder("greenlink.solver.breaker.state", this, breaker -> breaker.state().ordinal())
+                .register(meterRegistry);
+    }
+
+    // False while open, and while a half-open trial is in flight; every true must be followed by success() or failure()
+    synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            transition(State.HALF_OPEN);
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void success() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            transition(State.CLOSED);
+        }
+    }
+
+    synchronized void failure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            openedAt = System.nanoTime();
+            transition(State.OPEN);
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void transition(State next) {
+        if (next == State.OPEN) {
+            log.warn("Solver circuit breaker open after {} consecutive failures", consecutiveFailures);
+        } else {
+            log.info("Solver circuit breaker {}", next.name().toLowerCase(Locale.ROOT));
+        }
+        state = next;
+        meterRegistry.counter("greenlink.solver.breaker.transitions", "state", next.name().toLowerCase(Locale.ROOT)).increment();
+    }
+}
@@ -0,0 +1,157 @@
+package com.greenlink.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opt-in capture of solver exchanges for offline replay (loadtest/SolverReplay.java). Each one is
+ * a gzipped JSON file holding the request, the response (or the error) and the timing. Files are
+ * written on a background thread; when it falls behind, recordings are dropped rather than
+ * slowing optimize down. Recordings contain customer coordinates, so keep the directory private
+ * and the retention short.
+ */
+@Component
+public class SolverRecorder implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SolverRecorder.class);
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".json.gz";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss.SSS").withZone(ZoneOffset.UTC);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final double sampleRate;
+    private final Duration minSolveTime;
+    private final int maxFiles;
+    private final JsonMapper jsonMapper;
+    private final ThreadPoolExecutor writer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public SolverRecorder(
+            @Value("${app.solver.recorder.enabled:false}") boolean enabled,
+            @Value("${app.solver.recorder.directory:${java.io.tmpdir}/greenlink-solver-recordings}") Path directory,
+            @Value("${app.solver.recorder.sample-rate:1.0}") double sampleRate,
+            @Value("${app.solver.recorder.min-solve-time:PT0S}") Duration minSolveTime,
+            @Value("${app.solver.recorder.max-files:200}") int maxFiles,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.sampleRate = sampleRate;
+        this.minSolveTime = minSolveTime;
+        this.maxFiles = maxFiles;
+        this.jsonMapper = jsonMapper;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16), runnable -> {
+            Thread thread = new Thread(runnable, "solver-recorder");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.written = meterRegistry.counter("greenlink.solver.recordings", "result", "written");
+        this.dropped = meterRegistry.counter("greenlink.solver.recordings", "result", "dropped");
+        this.failed = meterRegistry.counter("greenlink.solver.recordings", "result", "failed");
+        if (enabled) {
+            log.info("Recording solver exchanges to {}", directory.toAbsolutePath());
+        }
+    }
+
+    // Returns at once; a failed exchange (response null, error set) is always kept
+    void record(UUID organizationId, int orders, int vehicles, byte[] request, byte[] response,
+                long solveNanos, RuntimeException error) {
+        if (!enabled) {
+            return;
+        }
+        if (error == null && (solveNanos < minSolveTime.toNanos() || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        Instant recordedAt = Instant.now();
+        String errorMessage = error == null ? null : error.getClass().getSimpleName() + ": " + error.getMessage();
+        try {
+            writer.execute(() -> write(recordedAt, organizationId, orders, vehicles, request, response, solveNanos, errorMessage));
+        } catch (RejectedExecutionException ex) {
+            dropped.increment();
+        }
+    }
+
+    private void write(Instant recordedAt, UUID organizationId, int orders, int vehicles, byte[] request,
+                       byte[] response, long solveNanos, String errorMessage) {
+        try {
+            Files.createDirectories(directory);
+            ObjectNode recording = jsonMapper.createObjectNode();
+            recording.put("format", FORMAT_VERSION);
+            recording.put("recordedAt", recordedAt.toString());
+            recording.put("organizationId", organizationId.toString());
+            recording.put("orders", orders);
+            recording.put("vehicles", vehicles);
+            recording.put("solveMs", Duration.ofNanos(solveNanos).toMillis());
+            recording.put("error", errorMessage);
+            recording.set("request", jsonMapper.readTree(request));
+            if (response == null || response.length == 0) {
+                recording.putNull("response");
+            } else {
+                recording.set("response", jsonMapper.readTree(response));
+            }
+
+            String name = "solve-" + FILE_TIME.format(recordedAt) + "-" + organizationId.toString().substring(0, 8)
+                    + "-" + Integer.toHexString(ThreadLocalRandom.current().nextInt(0x10000)) + SUFFIX;
+            Path partial = directory.resolve(name + ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial))) {
+                jsonMapper.writeValue(out, recording);
+            }
+            // Renamed only once complete, so a replay never picks up half a file
+            Files.move(partial, directory.resolve(name));
+            written.increment();
+            prune();
+        } catch (IOException | RuntimeException ex) {
+            failed.increment();
+            log.warn("Could not record solver exchange: {}", ex.getMessage());
+        }
+    }
+
+    private void prune() throws IOException {
+        List<Path> recordings;
+        try (Stream<Path> files = Files.list(directory)) {
+            recordings = files.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+        for (int i = 0; i < recordings.size() - maxFiles; i++) {
+            Files.deleteIfExists(recordings.get(i));
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
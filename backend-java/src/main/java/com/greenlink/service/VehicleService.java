@@ -19,19 +19,23 @@ public class VehicleService {
     private final RouteRepository routeRepository;
     private final GeocodingService geocodingService;
     private final CurrentUserService currentUserService;
+    private final InvalidationBus invalidationBus;
 
     public VehicleService(
             VehicleRepository vehicleRepository,
             RouteRepository routeRepository,
             GeocodingService geocodingService,
-            CurrentUserService currentUserService
+            CurrentUserService currentUserService,
+            InvalidationBus invalidationBus
     ) {
         this.vehicleRepository = vehicleRepository;
         this.routeRepository = routeRepository;
         this.geocodingService = geocodingService;
         this.currentUserService = currentUserService;
+        this.invalidationBus = invalidationBus;
     }
 
+    @Transactional(readOnly = true)
     public List<Vehicle> getAllVehicles() {
         return vehicleRepository.findByOrganizationId(currentUserService.requireOrganizationId());
     }
@@ -74,7 +78,9 @@ public class VehicleService {
             vehicle.setAddress(geocodingService.getAddress(vehicle.getStartLat(), vehicle.getStartLon()));
         }
 
-        return vehicleRepository.save(vehicle);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        invalidationBus.publish(InvalidationBus.Entity.VEHICLE, saved.getOrganizationId(), saved.getId());
+        return saved;
     }
 
     @Transactional
@@ -89,14 +95,18 @@ public class VehicleService {
                 if (route.getOrders() != null) {
                     for (var order : route.getOrders()) {
                         order.setRoute(null);
+                        order.setStopSequence(null);
                         order.setStatus("UNASSIGNED");
+                        invalidationBus.publish(InvalidationBus.Entity.ORDER, organizationId, order.getId());
                     }
                 }
                 route.setVehicle(null);
+                invalidationBus.publish(InvalidationBus.Entity.ROUTE, organizationId, route.getId());
             }
             routeRepository.saveAll(routes);
         }
 
         vehicleRepository.delete(vehicle);
+        invalidationBus.publish(InvalidationBus.Entity.VEHICLE, organizationId, id);
     }
 }
@@ -0,0 +1,5 @@
+-- Keyset pagination walks (organization_id, created_at, id) in order.
+-- It also covers every lookup the old single-column org index served.
+CREATE INDEX idx_orders_org_created_id ON delivery_orders(organization_id, created_at, id);
+
+DROP INDEX IF EXISTS idx_orders_org;
@@ -0,0 +1,5 @@
+-- Position of an order within its route, as returned by the solver
+ALTER TABLE delivery_orders ADD COLUMN stop_sequence INTEGER;
+
+-- Routes were only reachable by vehicle; listings page by org in (created_at, id) order
+CREATE INDEX idx_routes_org_created_id ON routes(organization_id, created_at, id);
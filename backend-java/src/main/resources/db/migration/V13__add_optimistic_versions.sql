@@ -0,0 +1,5 @@
+-- Optimistic locking columns for BaseEntity.version
+ALTER TABLE vehicles ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE delivery_orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE routes ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE drivers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
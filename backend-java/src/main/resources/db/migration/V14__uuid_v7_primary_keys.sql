@@ -0,0 +1,21 @@
+-- Time-ordered (version 7) UUIDs: 48-bit Unix epoch milliseconds followed by random bits.
+-- The application generates its own v7 ids through Hibernate; this function serves raw SQL
+-- inserts through the column defaults below. Existing rows keep their random (v4) ids: they are
+-- public (API URLs, client state, outside references), so only new rows are time-ordered.
+CREATE OR REPLACE FUNCTION uuid_v7_at(ts TIMESTAMPTZ) RETURNS UUID AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        placing substring(int8send(floor(extract(epoch FROM ts) * 1000)::BIGINT) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::UUID;
+$$ LANGUAGE SQL VOLATILE;
+
+ALTER TABLE vehicles ALTER COLUMN id SET DEFAULT uuid_v7_at(clock_timestamp());
+ALTER TABLE delivery_orders ALTER COLUMN id SET DEFAULT uuid_v7_at(clock_timestamp());
+ALTER TABLE routes ALTER COLUMN id SET DEFAULT uuid_v7_at(clock_timestamp());
+ALTER TABLE drivers ALTER COLUMN id SET DEFAULT uuid_v7_at(clock_timestamp());
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_v7_at(clock_timestamp());
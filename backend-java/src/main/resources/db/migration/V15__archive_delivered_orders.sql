@@ -0,0 +1,59 @@
+-- When an order was delivered; archival age is measured from here
+ALTER TABLE delivery_orders ADD COLUMN delivered_at TIMESTAMP;
+UPDATE delivery_orders
+SET delivered_at = COALESCE(updated_at, created_at)
+WHERE status = 'DELIVERED';
+
+-- Only delivered rows are ever archival candidates, so the index stays small
+CREATE INDEX idx_orders_delivered_at ON delivery_orders(delivered_at) WHERE status = 'DELIVERED';
+
+-- Cold storage for delivered orders, one partition per delivery month.
+-- No foreign keys: archived rows outlive the routes they were delivered on.
+CREATE TABLE delivery_orders_history (
+    id UUID NOT NULL,
+    organization_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    delivered_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT now(),
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    address VARCHAR(500),
+    weight_kg INTEGER NOT NULL,
+    service_duration_min INTEGER NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    route_id UUID,
+    stop_sequence INTEGER,
+    PRIMARY KEY (id, delivered_at)
+) PARTITION BY RANGE (delivered_at);
+
+CREATE INDEX idx_orders_history_org_delivered_id ON delivery_orders_history(organization_id, delivered_at, id);
+
+-- Creates the monthly partitions covering every archival candidate older than the cutoff.
+-- Serialized with an advisory lock so concurrent archivers cannot race on the DDL.
+CREATE OR REPLACE FUNCTION ensure_order_history_partitions(cutoff TIMESTAMP) RETURNS INTEGER AS $$
+DECLARE
+    month_start TIMESTAMP;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('delivery_orders_history'));
+
+    SELECT date_trunc('month', min(delivered_at)) INTO month_start
+    FROM delivery_orders
+    WHERE status = 'DELIVERED' AND delivered_at < cutoff;
+
+    WHILE month_start IS NOT NULL AND month_start < cutoff LOOP
+        partition_name := 'delivery_orders_history_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF delivery_orders_history FOR VALUES FROM (%L) TO (%L)',
+                partition_name, month_start, month_start + INTERVAL '1 month');
+            created := created + 1;
+        END IF;
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
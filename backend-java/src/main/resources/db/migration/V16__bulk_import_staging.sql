@@ -0,0 +1,39 @@
+-- Caller-supplied key that makes bulk loads re-runnable: unique per organization when present
+ALTER TABLE delivery_orders ADD COLUMN external_ref VARCHAR(100);
+ALTER TABLE vehicles ADD COLUMN external_ref VARCHAR(100);
+
+CREATE UNIQUE INDEX uq_orders_org_external_ref ON delivery_orders(organization_id, external_ref)
+    WHERE external_ref IS NOT NULL;
+CREATE UNIQUE INDEX uq_vehicles_org_external_ref ON vehicles(organization_id, external_ref)
+    WHERE external_ref IS NOT NULL;
+
+-- COPY targets for BulkImportService. Unlogged (no WAL) and all-text, so malformed values are
+-- reported row by row instead of aborting the COPY. Rows are tagged with the load they belong
+-- to through a transaction-local setting and removed when that load finishes.
+CREATE UNLOGGED TABLE order_import_staging (
+    load_id UUID NOT NULL DEFAULT current_setting('greenlink.import_load_id')::UUID,
+    line_no BIGINT GENERATED ALWAYS AS IDENTITY,
+    external_ref TEXT,
+    latitude TEXT,
+    longitude TEXT,
+    address TEXT,
+    weight_kg TEXT,
+    service_duration_min TEXT,
+    error TEXT
+);
+CREATE INDEX idx_order_import_staging_load ON order_import_staging(load_id, line_no);
+
+CREATE UNLOGGED TABLE vehicle_import_staging (
+    load_id UUID NOT NULL DEFAULT current_setting('greenlink.import_load_id')::UUID,
+    line_no BIGINT GENERATED ALWAYS AS IDENTITY,
+    external_ref TEXT,
+    name TEXT,
+    capacity_kg TEXT,
+    start_shift_minutes TEXT,
+    end_shift_minutes TEXT,
+    start_lat TEXT,
+    start_lon TEXT,
+    address TEXT,
+    error TEXT
+);
+CREATE INDEX idx_vehicle_import_staging_load ON vehicle_import_staging(load_id, line_no);
@@ -0,0 +1,2 @@
+-- Tokens carry the version they were issued under; bumping it revokes every outstanding token
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,79 @@
+-- Per-organization change counters for the list endpoints' ETag/Last-Modified. Bumped by
+-- statement-level triggers, so every writer (JPA, bulk import, archiver, ad hoc SQL) counts and
+-- a 100k-row statement costs one upsert per organization rather than one per row.
+CREATE TABLE collection_versions (
+    organization_id UUID NOT NULL,
+    collection VARCHAR(32) NOT NULL,
+    version BIGINT NOT NULL,
+    changed_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (organization_id, collection)
+);
+
+-- The organizations are de-duplicated on their own: clock_timestamp() differs per row, so a DISTINCT
+-- over it would propose the same key twice in a multi-row statement and fail the upsert.
+--
+-- Trade-off: the upsert keeps a row lock on (organization, collection) until the writing
+-- transaction commits, so writers to one organization's collection serialize from their first
+-- write statement to commit. JPA flushes at commit and bulk import merges last, so the window is
+-- short in practice; a long transaction that writes early holds up the organization's other
+-- writers. A lock-free counter (sequence or append-only log) would let commits land out of order
+-- behind a version a reader has already seen, and serve stale 304s.
+CREATE OR REPLACE FUNCTION bump_collection_version() RETURNS TRIGGER AS $$
+DECLARE
+    stamped_at TIMESTAMPTZ := clock_timestamp();
+BEGIN
+    -- Organizations locked in a fixed order so concurrent bulk statements cannot deadlock
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO collection_versions (organization_id, collection, version, changed_at)
+        SELECT organization_id, TG_ARGV[0], 1, stamped_at
+        FROM (SELECT DISTINCT organization_id FROM new_rows) changed
+        ORDER BY organization_id
+        ON CONFLICT (organization_id, collection) DO UPDATE
+            SET version = collection_versions.version + 1, changed_at = excluded.changed_at;
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO collection_versions (organization_id, collection, version, changed_at)
+        SELECT organization_id, TG_ARGV[0], 1, stamped_at
+        FROM (SELECT organization_id FROM new_rows UNION SELECT organization_id FROM old_rows) changed
+        ORDER BY organization_id
+        ON CONFLICT (organization_id, collection) DO UPDATE
+            SET version = collection_versions.version + 1, changed_at = excluded.changed_at;
+    ELSE
+        INSERT INTO collection_versions (organization_id, collection, version, changed_at)
+        SELECT organization_id, TG_ARGV[0], 1, stamped_at
+        FROM (SELECT DISTINCT organization_id FROM old_rows) changed
+        ORDER BY organization_id
+        ON CONFLICT (organization_id, collection) DO UPDATE
+            SET version = collection_versions.version + 1, changed_at = excluded.changed_at;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables allow a single event per trigger, hence three per table
+CREATE TRIGGER vehicles_version_ins AFTER INSERT ON vehicles REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('vehicles');
+CREATE TRIGGER vehicles_version_upd AFTER UPDATE ON vehicles REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('vehicles');
+CREATE TRIGGER vehicles_version_del AFTER DELETE ON vehicles REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('vehicles');
+
+CREATE TRIGGER drivers_version_ins AFTER INSERT ON drivers REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('drivers');
+CREATE TRIGGER drivers_version_upd AFTER UPDATE ON drivers REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('drivers');
+CREATE TRIGGER drivers_version_del AFTER DELETE ON drivers REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('drivers');
+
+CREATE TRIGGER orders_version_ins AFTER INSERT ON delivery_orders REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('orders');
+CREATE TRIGGER orders_version_upd AFTER UPDATE ON delivery_orders REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('orders');
+CREATE TRIGGER orders_version_del AFTER DELETE ON delivery_orders REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('orders');
+
+CREATE TRIGGER routes_version_ins AFTER INSERT ON routes REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('routes');
+CREATE TRIGGER routes_version_upd AFTER UPDATE ON routes REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('routes');
+CREATE TRIGGER routes_version_del AFTER DELETE ON routes REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_collection_version('routes');
@@ -0,0 +1,19 @@
+-- One row per optimize run, shared by every backend instance. At most one RUNNING job per
+-- organization: a node that finds one waits for its result instead of solving again. Claims and
+-- plan writes are serialized per organization with pg_advisory_xact_lock.
+CREATE TABLE optimize_jobs (
+    id UUID PRIMARY KEY,
+    organization_id UUID NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    node VARCHAR(255) NOT NULL,
+    started_at TIMESTAMPTZ NOT NULL,
+    heartbeat_at TIMESTAMPTZ NOT NULL,
+    finished_at TIMESTAMPTZ,
+    outcome VARCHAR(32),
+    route_count INTEGER,
+    error_status INTEGER,
+    error TEXT
+);
+
+CREATE UNIQUE INDEX optimize_jobs_one_running ON optimize_jobs (organization_id) WHERE status = 'RUNNING';
+CREATE INDEX optimize_jobs_finished_at ON optimize_jobs (finished_at) WHERE finished_at IS NOT NULL;
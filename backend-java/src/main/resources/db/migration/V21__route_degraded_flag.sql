@@ -0,0 +1,3 @@
+-- Routes planned by the in-process fallback heuristic (solver timed out or unavailable) rather
+-- than by the solver; dispatchers may want to re-run optimize once the solver is back.
+ALTER TABLE routes ADD COLUMN degraded BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,8 @@
+-- Single row the replica lag check stamps on the primary every pass. A replica's lag is the age of
+-- the newest stamp it has replayed, which keeps growing when it stops receiving WAL, unlike
+-- comparing its own receive and replay positions.
+CREATE TABLE replication_heartbeat (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    beat_at TIMESTAMPTZ NOT NULL
+);
+INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, clock_timestamp());
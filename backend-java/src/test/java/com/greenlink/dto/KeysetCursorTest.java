@@ -0,0 +1,59 @@
+package com.greenlink.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsThroughEncode() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_793_000), UUID.randomUUID());
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(KeysetCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void keepsWholeSecondTimestamps() {
+        // LocalDateTime.toString drops zero seconds; parse must still accept it
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 1, 1, 0, 0), UUID.randomUUID());
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void nullOrBlankStartsFromTheBeginning() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode("   ")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertBadRequest("not base64!");
+        assertBadRequest(encodeRaw("no-separator"));
+        assertBadRequest(encodeRaw("yesterday|" + UUID.randomUUID()));
+        assertBadRequest(encodeRaw(LocalDateTime.now() + "|not-a-uuid"));
+    }
+
+    private static void assertBadRequest(String cursor) {
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
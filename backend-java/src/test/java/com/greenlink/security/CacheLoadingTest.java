@@ -0,0 +1,84 @@
+package com.greenlink.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheLoadingTest {
+
+    private final AsyncCache<String, Integer> cache = Caffeine.newBuilder().buildAsync();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void cachesTheLoadedValue() {
+        assertThat(CacheLoading.get(cache, "k", key -> loads.incrementAndGet())).isEqualTo(1);
+        assertThat(CacheLoading.get(cache, "k", key -> loads.incrementAndGet())).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidationDuringALoadKeepsItsResultOutOfTheCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> stale = CompletableFuture.supplyAsync(() -> CacheLoading.get(cache, "k", key -> {
+            loading.countDown();
+            await(release);
+            return 1;
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // A revocation commits while the old version is still being read
+        cache.synchronous().invalidate("k");
+        release.countDown();
+
+        assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(CacheLoading.get(cache, "k", key -> 2)).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> CacheLoading.get(cache, "k", key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return 7;
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> CacheLoading.get(cache, "k", key -> {
+            loads.incrementAndGet();
+            return 8;
+        }));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(7);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(7);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void failuresAreRethrownAndNotCached() {
+        assertThatThrownBy(() -> CacheLoading.get(cache, "k", key -> {
+            throw new IllegalStateException("no such user");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("no such user");
+
+        assertThat(CacheLoading.get(cache, "k", key -> 3)).isEqualTo(3);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.greenlink.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void allowsCapacityThenAsksToWait() {
+        TokenBucket bucket = new TokenBucket(3, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryConsume()).isZero();
+        }
+        Duration wait = bucket.tryConsume();
+
+        // One token a minute: the next one is close to a minute away
+        assertThat(wait).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(1));
+        assertThat(wait).isGreaterThan(Duration.ofSeconds(50));
+    }
+
+    @Test
+    void waitTimeDoesNotConsume() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+
+        assertThat(bucket.waitTime()).isZero();
+        assertThat(bucket.waitTime()).isZero();
+        assertThat(bucket.tryConsume()).isZero();
+        assertThat(bucket.waitTime()).isPositive();
+        assertThat(bucket.tryConsume()).isPositive();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // 6000 a minute is one token every 10 ms
+        TokenBucket bucket = new TokenBucket(1, 6000);
+
+        assertThat(bucket.tryConsume()).isZero();
+        assertThat(bucket.tryConsume()).isPositive();
+        Thread.sleep(30);
+
+        assertThat(bucket.tryConsume()).isZero();
+    }
+}
@@ -0,0 +1,136 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.ImportResult;
+import com.greenlink.model.Role;
+import com.greenlink.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// COPY, validation and merge run in the test transaction, so every load is rolled back
+@SpringBootTest
+@Transactional
+class BulkImportServiceTest {
+
+    private static final String ORDER_HEADER = "external_ref,latitude,longitude,address,weight_kg,service_duration_min\n";
+    private static final String VEHICLE_HEADER =
+            "external_ref,name,capacity_kg,start_shift_minutes,end_shift_minutes,start_lat,start_lon,address\n";
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID organizationId = UUID.randomUUID();
+
+    @BeforeEach
+    void signIn() {
+        AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "import@test", organizationId, Role.DISPATCHER, 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void countsInsertedDuplicateAndRejectedRows() {
+        ImportResult result = bulkImportService.importOrders(csv(ORDER_HEADER
+                + "A1,40.70,-74.00,1 Main St,5,10\n"
+                + "A2,40.80,-74.10,,3,5\n"
+                + "B1,north,-74.00,,1,1\n"
+                + ",40.70,-74.00,,1,1\n"
+                + "A1,40.75,-74.05,\"2 Main St, Unit 4\",6,10\n"));
+
+        assertThat(result.getReceived()).isEqualTo(5);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getUpdated()).isZero();
+        assertThat(result.getDuplicates()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getSkipped()).isZero();
+        assertThat(result.getErrors()).containsExactly(
+                new ImportResult.RowError(4, "latitude is not a number"),
+                new ImportResult.RowError(5, "external_ref is required")
+        );
+
+        // Last row wins for a repeated external_ref
+        Map<String, Object> a1 = order("A1");
+        assertThat(a1).containsEntry("address", "2 Main St, Unit 4").containsEntry("weight_kg", 6);
+        assertThat(order("A2")).containsEntry("address", null);
+    }
+
+    @Test
+    void reimportUpdatesUnassignedOrdersAndSkipsPlannedOnes() {
+        bulkImportService.importOrders(csv(ORDER_HEADER
+                + "A1,40.70,-74.00,,5,10\n"
+                + "A2,40.80,-74.10,,3,5\n"));
+        jdbcTemplate.update("update delivery_orders set status = 'ASSIGNED' where organization_id = ? and external_ref = 'A2'",
+                organizationId);
+
+        ImportResult result = bulkImportService.importOrders(csv(ORDER_HEADER
+                + "A1,40.70,-74.00,,9,10\n"
+                + "A2,40.80,-74.10,,9,5\n"
+                + "A3,40.90,-74.20,,1,5\n"));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getSkipped()).isEqualTo(1);
+        assertThat(result.getRejected()).isZero();
+        assertThat(order("A1")).containsEntry("weight_kg", 9).containsEntry("version", 1L);
+        assertThat(order("A2")).containsEntry("weight_kg", 3).containsEntry("version", 0L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_import_staging", Long.class)).isZero();
+    }
+
+    @Test
+    void validatesVehicleShifts() {
+        ImportResult result = bulkImportService.importVehicles(csv(VEHICLE_HEADER
+                + "V1,Van one,800,480,1020,40.70,-74.00,Depot\n"
+                + "V2,Van two,800,1020,480,40.70,-74.00,\n"
+                + "V3,Van three,800,480,1500,40.70,-74.00,\n"));
+
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ImportResult.RowError::reason)
+                .containsExactly("shift ends before it starts", "end_shift_minutes is past the end of the day");
+    }
+
+    @Test
+    void rejectsStructurallyBrokenFiles() {
+        assertThatThrownBy(() -> bulkImportService.importOrders(csv(ORDER_HEADER + "A1,40.70,-74.00\n")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private Map<String, Object> order(String externalRef) {
+        return jdbcTemplate.queryForMap(
+                "select address, weight_kg, version from delivery_orders where organization_id = ? and external_ref = ?",
+                organizationId,
+                externalRef
+        );
+    }
+
+    private static InputStream csv(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
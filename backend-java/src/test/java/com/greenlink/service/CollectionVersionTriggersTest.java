@@ -0,0 +1,107 @@
+package com.greenlink.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The V18 statement-level triggers, driven with multi-row statements; each test rolls back
+@SpringBootTest
+@Transactional
+class CollectionVersionTriggersTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID orgA = UUID.randomUUID();
+    private final UUID orgB = UUID.randomUUID();
+
+    @Test
+    void multiRowInsertBumpsEachOrganizationOnce() {
+        insertVehicles(orgA, 3);
+        insertVehicles(orgB, 2);
+        jdbcTemplate.update(
+                """
+                insert into vehicles (organization_id, created_at, name, capacity_kg, start_shift_minutes, end_shift_minutes)
+                select org, now(), 'mixed', 100, 480, 1020
+                from (values (?::uuid), (?::uuid), (?::uuid)) as orgs(org)
+                """,
+                orgA, orgB, orgA
+        );
+
+        assertThat(version(orgA, "vehicles")).isEqualTo(2);
+        assertThat(version(orgB, "vehicles")).isEqualTo(2);
+        assertThat(version(orgA, "orders")).isZero();
+    }
+
+    @Test
+    void multiRowUpdateAndDeleteBumpOncePerStatement() {
+        insertVehicles(orgA, 4);
+
+        jdbcTemplate.update("update vehicles set capacity_kg = capacity_kg + 1 where organization_id = ?", orgA);
+        assertThat(version(orgA, "vehicles")).isEqualTo(2);
+
+        jdbcTemplate.update("delete from vehicles where organization_id = ?", orgA);
+        assertThat(version(orgA, "vehicles")).isEqualTo(3);
+    }
+
+    @Test
+    void updateMovingRowsBumpsOldAndNewOrganization() {
+        insertVehicles(orgA, 2);
+
+        jdbcTemplate.update("update vehicles set organization_id = ? where organization_id = ?", orgB, orgA);
+
+        assertThat(version(orgA, "vehicles")).isEqualTo(2);
+        assertThat(version(orgB, "vehicles")).isEqualTo(1);
+    }
+
+    @Test
+    void statementTouchingNoRowsBumpsNothing() {
+        jdbcTemplate.update("update delivery_orders set weight_kg = 1 where organization_id = ?", orgA);
+        jdbcTemplate.update("delete from delivery_orders where organization_id = ?", orgA);
+
+        assertThat(version(orgA, "orders")).isZero();
+    }
+
+    @Test
+    void tracksOrdersSeparatelyFromVehicles() {
+        insertVehicles(orgA, 1);
+        jdbcTemplate.update(
+                """
+                insert into delivery_orders (organization_id, created_at, latitude, longitude, weight_kg, service_duration_min)
+                select ?, now(), 40.7, -74.0, 5, 10 from generate_series(1, 50)
+                """,
+                orgA
+        );
+
+        assertThat(version(orgA, "orders")).isEqualTo(1);
+        assertThat(version(orgA, "vehicles")).isEqualTo(1);
+    }
+
+    private void insertVehicles(UUID organizationId, int count) {
+        jdbcTemplate.update(
+                """
+                insert into vehicles (organization_id, created_at, name, capacity_kg, start_shift_minutes, end_shift_minutes)
+                select ?, now(), 'van ' || n, 100, 480, 1020 from generate_series(1, ?) as n
+                """,
+                organizationId,
+                count
+        );
+    }
+
+    private long version(UUID organizationId, String collection) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "select version from collection_versions where organization_id = ? and collection = ?",
+                Long.class,
+                organizationId,
+                collection
+        );
+        return versions.isEmpty() ? 0 : versions.getFirst();
+    }
+}
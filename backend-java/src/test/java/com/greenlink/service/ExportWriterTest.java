@@ -0,0 +1,76 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.ExportFormat;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportWriterTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void writesHeaderAndPlainValuesUnquoted() {
+        String csv = csv(List.of("id", "status", "weight"), new Object[]{"a1", "PENDING", 12});
+
+        assertThat(csv).isEqualTo("id,status,weight\na1,PENDING,12\n");
+    }
+
+    @Test
+    void quotesValuesThatNeedIt() {
+        String csv = csv(List.of("comma", "quote", "newline", "cr"),
+                new Object[]{"Main St, 5", "the \"blue\" door", "line one\nline two", "a\rb"});
+
+        assertThat(csv).isEqualTo("comma,quote,newline,cr\n"
+                + "\"Main St, 5\",\"the \"\"blue\"\" door\",\"line one\nline two\",\"a\rb\"\n");
+    }
+
+    @Test
+    void writesNullAsEmptyField() {
+        String csv = csv(List.of("a", "b", "c"), new Object[]{null, "x", null});
+
+        assertThat(csv).isEqualTo("a,b,c\n,x,\n");
+    }
+
+    @Test
+    void writesNdjsonRowsKeyedByColumn() {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (ExportWriter writer = ExportWriter.open(target, ExportFormat.NDJSON, false, List.of("id", "note"), jsonMapper)) {
+            writer.row("a1", "has, comma");
+            writer.row("a2", null);
+        }
+
+        assertThat(target.toString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"id\":\"a1\",\"note\":\"has, comma\"}\n{\"id\":\"a2\",\"note\":null}\n");
+    }
+
+    @Test
+    void gzippedOutputDecompressesToTheSameCsv() throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (ExportWriter writer = ExportWriter.open(target, ExportFormat.CSV, true, List.of("id"), jsonMapper)) {
+            writer.row("a1");
+        }
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(target.toByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id\na1\n");
+        }
+    }
+
+    private String csv(List<String> columns, Object[]... rows) {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (ExportWriter writer = ExportWriter.open(target, ExportFormat.CSV, false, columns, jsonMapper)) {
+            for (Object[] row : rows) {
+                writer.row(row);
+            }
+        }
+        return target.toString(StandardCharsets.UTF_8);
+    }
+}
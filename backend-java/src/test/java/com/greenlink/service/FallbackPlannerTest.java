@@ -0,0 +1,112 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.RouteResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FallbackPlannerTest {
+
+    @Test
+    void keepsEveryRouteWithinItsVehicleCapacity() {
+        ProblemSnapshot.OrderColumns orders = new ProblemSnapshot.OrderColumns();
+        Map<String, Integer> weights = new HashMap<>();
+        for (int i = 0; i < 12; i++) {
+            UUID id = UUID.randomUUID();
+            int weight = 3 + i % 4;
+            weights.put(id.toString(), weight);
+            orders.add(id, 40.70 + i * 0.002, -74.00 + i * 0.001, weight, 5, 1);
+        }
+        ProblemSnapshot.VehicleColumns vehicles = new ProblemSnapshot.VehicleColumns();
+        Map<String, Integer> capacities = new HashMap<>();
+        for (int v = 0; v < 3; v++) {
+            UUID id = UUID.randomUUID();
+            capacities.put(id.toString(), 20);
+            vehicles.add(id, 20, 40.70, -74.00, 1);
+        }
+
+        RouteResponse plan = FallbackPlanner.plan(new ProblemSnapshot(UUID.randomUUID(), orders, vehicles));
+
+        Set<String> planned = new HashSet<>();
+        for (RouteResponse.RoutePlan route : plan.getRoutes()) {
+            int load = 0;
+            for (Map<String, Object> stop : route.getStops()) {
+                String id = (String) stop.get("id");
+                assertThat(planned.add(id)).as("order planned twice: %s", id).isTrue();
+                load += weights.get(id);
+            }
+            assertThat(load).isLessThanOrEqualTo(capacities.get(route.getVehicleId()));
+        }
+        // 54 kg over 60 kg of capacity: greedy packing may strand an order, so only what is planned is checked
+        assertThat(planned).isNotEmpty().isSubsetOf(weights.keySet());
+    }
+
+    @Test
+    void leavesOrdersNoVehicleCanCarryUnassigned() {
+        UUID light = UUID.randomUUID();
+        UUID heavy = UUID.randomUUID();
+        ProblemSnapshot.OrderColumns orders = new ProblemSnapshot.OrderColumns();
+        orders.add(light, 40.71, -74.00, 10, 5, 1);
+        orders.add(heavy, 40.72, -74.00, 500, 5, 1);
+        ProblemSnapshot.VehicleColumns vehicles = new ProblemSnapshot.VehicleColumns();
+        UUID van = UUID.randomUUID();
+        vehicles.add(van, 100, 40.70, -74.00, 1);
+
+        RouteResponse plan = FallbackPlanner.plan(new ProblemSnapshot(UUID.randomUUID(), orders, vehicles));
+
+        assertThat(plan.getRoutes()).singleElement().satisfies(route -> {
+            assertThat(route.getVehicleId()).isEqualTo(van.toString());
+            assertThat(route.getStops()).containsExactly(Map.of("id", light.toString()));
+        });
+    }
+
+    @Test
+    void omitsVehiclesWithoutStopsAndUsesTheNearestOne() {
+        UUID order = UUID.randomUUID();
+        ProblemSnapshot.OrderColumns orders = new ProblemSnapshot.OrderColumns();
+        orders.add(order, 51.50, -0.12, 5, 5, 1);
+        ProblemSnapshot.VehicleColumns vehicles = new ProblemSnapshot.VehicleColumns();
+        UUID london = UUID.randomUUID();
+        UUID noStart = UUID.randomUUID();
+        vehicles.add(noStart, 100, Double.NaN, Double.NaN, 1);
+        vehicles.add(london, 100, 51.51, -0.13, 1);
+
+        RouteResponse plan = FallbackPlanner.plan(new ProblemSnapshot(UUID.randomUUID(), orders, vehicles));
+
+        assertThat(plan.getRoutes()).extracting(RouteResponse.RoutePlan::getVehicleId).containsExactly(london.toString());
+    }
+
+    @Test
+    void insertsStopsInAnOrderThatFollowsTheLine() {
+        // Three points due north of the start, added out of order
+        UUID near = UUID.randomUUID();
+        UUID middle = UUID.randomUUID();
+        UUID far = UUID.randomUUID();
+        ProblemSnapshot.OrderColumns orders = new ProblemSnapshot.OrderColumns();
+        orders.add(far, 40.73, -74.00, 1, 5, 1);
+        orders.add(near, 40.71, -74.00, 1, 5, 1);
+        orders.add(middle, 40.72, -74.00, 1, 5, 1);
+        ProblemSnapshot.VehicleColumns vehicles = new ProblemSnapshot.VehicleColumns();
+        vehicles.add(UUID.randomUUID(), 100, 40.70, -74.00, 1);
+
+        RouteResponse plan = FallbackPlanner.plan(new ProblemSnapshot(UUID.randomUUID(), orders, vehicles));
+
+        List<Object> stops = plan.getRoutes().getFirst().getStops().stream().map(stop -> stop.get("id")).toList();
+        assertThat(stops).containsExactly(near.toString(), middle.toString(), far.toString());
+    }
+
+    @Test
+    void emptyProblemPlansNothing() {
+        RouteResponse plan = FallbackPlanner.plan(new ProblemSnapshot(UUID.randomUUID(),
+                new ProblemSnapshot.OrderColumns(), new ProblemSnapshot.VehicleColumns()));
+
+        assertThat(plan.getRoutes()).isEmpty();
+    }
+}
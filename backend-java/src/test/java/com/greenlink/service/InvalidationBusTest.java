@@ -0,0 +1,143 @@
+package com.greenlink.service;
+
+import com.greenlink.config.PgNotifications;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class InvalidationBusTest {
+
+    private final PgNotifications notifications = mock(PgNotifications.class);
+    private final List<String> sentPayloads = new CopyOnWriteArrayList<>();
+    private InvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> sentPayloads.add(invocation.getArgument(1)))
+                .when(notifications).publish(eq(InvalidationBus.CHANNEL), anyString());
+        // Long enough that everything a test publishes lands in one flush
+        bus = new InvalidationBus(notifications, new SimpleMeterRegistry(),
+                Duration.ofMillis(200), Duration.ofMillis(50), 3);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        bus.destroy();
+    }
+
+    @Test
+    void coalescesDuplicatesAndLargeGroupsIntoOneNotification() {
+        UUID busyOrg = UUID.randomUUID();
+        UUID quietOrg = UUID.randomUUID();
+        UUID vehicle = UUID.randomUUID();
+        UUID driver = UUID.randomUUID();
+
+        for (int i = 0; i < 5; i++) {
+            bus.publish(InvalidationBus.Entity.VEHICLE, busyOrg, UUID.randomUUID());
+        }
+        bus.publish(InvalidationBus.Entity.VEHICLE, quietOrg, vehicle);
+        bus.publish(InvalidationBus.Entity.VEHICLE, quietOrg, vehicle);
+        bus.publish(InvalidationBus.Entity.DRIVER, busyOrg, driver);
+        bus.publish(InvalidationBus.Entity.ROUTE, quietOrg, null);
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> !sentPayloads.isEmpty());
+        assertThat(sentPayloads).hasSize(1);
+        assertThat(changeLines(sentPayloads.getFirst())).containsExactlyInAnyOrder(
+                "V " + busyOrg + " *",
+                "V " + quietOrg + " " + vehicle,
+                "D " + busyOrg + " " + driver,
+                "R " + quietOrg + " *"
+        );
+    }
+
+    @Test
+    void wildcardAbsorbsIdsOfItsGroup() {
+        UUID org = UUID.randomUUID();
+
+        bus.publish(InvalidationBus.Entity.DRIVER, org, UUID.randomUUID());
+        bus.publish(InvalidationBus.Entity.DRIVER, org, null);
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> !sentPayloads.isEmpty());
+        assertThat(changeLines(sentPayloads.getFirst())).containsExactly("D " + org + " *");
+    }
+
+    @Test
+    void requeuesABatchThatFailedToSend() {
+        UUID org = UUID.randomUUID();
+        UUID vehicle = UUID.randomUUID();
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("connection reset");
+            }
+            return sentPayloads.add(invocation.getArgument(1));
+        }).when(notifications).publish(eq(InvalidationBus.CHANNEL), anyString());
+
+        bus.publish(InvalidationBus.Entity.VEHICLE, org, vehicle);
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> !sentPayloads.isEmpty());
+        assertThat(attempts).hasValue(2);
+        assertThat(changeLines(sentPayloads.getFirst())).containsExactly("V " + org + " " + vehicle);
+    }
+
+    @Test
+    void deliversLocallyAtOnceAndSkipsItsOwnNotifications() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(notifications).subscribe(eq(InvalidationBus.CHANNEL), handler.capture(), any());
+        List<InvalidationBus.Change> evicted = new CopyOnWriteArrayList<>();
+        bus.subscribe(InvalidationBus.Entity.VEHICLE, evicted::add, () -> { });
+        UUID org = UUID.randomUUID();
+        UUID vehicle = UUID.randomUUID();
+
+        bus.publish(InvalidationBus.Entity.VEHICLE, org, vehicle);
+        assertThat(evicted).containsExactly(new InvalidationBus.Change(InvalidationBus.Entity.VEHICLE, org, vehicle));
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> !sentPayloads.isEmpty());
+        handler.getValue().accept(sentPayloads.getFirst());
+        assertThat(evicted).hasSize(1);
+
+        UUID otherOrg = UUID.randomUUID();
+        handler.getValue().accept("another-node\nV " + otherOrg + " *\nD " + otherOrg + " *");
+        assertThat(evicted).last().isEqualTo(new InvalidationBus.Change(InvalidationBus.Entity.VEHICLE, otherOrg, null));
+        assertThat(evicted).hasSize(2);
+    }
+
+    @Test
+    void resyncEvictsEverything() {
+        ArgumentCaptor<Runnable> resync = ArgumentCaptor.forClass(Runnable.class);
+        verify(notifications).subscribe(eq(InvalidationBus.CHANNEL), any(), resync.capture());
+        List<String> cleared = new CopyOnWriteArrayList<>();
+        bus.subscribe(InvalidationBus.Entity.VEHICLE, change -> { }, () -> cleared.add("vehicles"));
+        bus.subscribe(InvalidationBus.Entity.DRIVER, change -> { }, () -> cleared.add("drivers"));
+
+        resync.getValue().run();
+
+        assertThat(cleared).containsExactlyInAnyOrder("vehicles", "drivers");
+    }
+
+    // Drops the sending node's id on the first line
+    private static List<String> changeLines(String payload) {
+        List<String> lines = Arrays.asList(payload.split("\n"));
+        return lines.subList(1, lines.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.greenlink.service;
+
+import com.greenlink.repository.ArchivedOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The archiver commits per batch, so rows are cleaned up by hand. Orders are dated 2001 to stay
+// clear of anything else in the database; the scheduled run is off so it cannot race the test.
+@SpringBootTest(properties = "app.archive.enabled=false")
+class OrderArchiverTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2001, 2, 1, 0, 0);
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID organizationId = UUID.randomUUID();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from delivery_orders where organization_id = ?", organizationId);
+        jdbcTemplate.update("delete from delivery_orders_history where organization_id = ?", organizationId);
+        jdbcTemplate.execute("drop table if exists delivery_orders_history_2001_01");
+    }
+
+    @Test
+    void movesDeliveredOrdersInBatchesUpToTheRunLimit() {
+        for (int day = 1; day <= 5; day++) {
+            insertOrder("DELIVERED", LocalDateTime.of(2001, 1, day, 12, 0));
+        }
+        OrderArchiver archiver = new OrderArchiver(archivedOrderRepository, transactionManager,
+                true, Duration.ofDays(30), 2, 2);
+
+        assertThat(archiver.archive(CUTOFF)).isEqualTo(4);
+        assertThat(hotCount()).isEqualTo(1);
+        assertThat(historyCount()).isEqualTo(4);
+
+        // A short batch ends the run, and the next run has nothing left
+        assertThat(archiver.archive(CUTOFF)).isEqualTo(1);
+        assertThat(archiver.archive(CUTOFF)).isZero();
+        assertThat(hotCount()).isZero();
+        assertThat(historyCount()).isEqualTo(5);
+    }
+
+    @Test
+    void leavesRecentAndUndeliveredOrdersInPlace() {
+        UUID archived = insertOrder("DELIVERED", LocalDateTime.of(2001, 1, 20, 8, 30));
+        insertOrder("DELIVERED", LocalDateTime.of(2001, 2, 3, 8, 30));
+        insertOrder("ASSIGNED", null);
+        OrderArchiver archiver = new OrderArchiver(archivedOrderRepository, transactionManager,
+                true, Duration.ofDays(30), 10, 10);
+
+        assertThat(archiver.archive(CUTOFF)).isEqualTo(1);
+
+        assertThat(hotCount()).isEqualTo(2);
+        assertThat(archivedOrderRepository.findByIdAndOrganizationId(archived, organizationId))
+                .hasValueSatisfying(order -> {
+                    assertThat(order.getDeliveredAt()).isEqualTo(LocalDateTime.of(2001, 1, 20, 8, 30));
+                    assertThat(order.getWeightKg()).isEqualTo(7);
+                    assertThat(order.getAddress()).isEqualTo("1 Archive Way");
+                });
+    }
+
+    private UUID insertOrder(String status, LocalDateTime deliveredAt) {
+        return jdbcTemplate.queryForObject(
+                """
+                insert into delivery_orders (organization_id, created_at, latitude, longitude, weight_kg,
+                                             service_duration_min, status, address, delivered_at)
+                values (?, ?, 40.7, -74.0, 7, 10, ?, '1 Archive Way', ?)
+                returning id
+                """,
+                UUID.class,
+                organizationId,
+                LocalDateTime.of(2001, 1, 1, 0, 0),
+                status,
+                deliveredAt
+        );
+    }
+
+    private long hotCount() {
+        return jdbcTemplate.queryForObject("select count(*) from delivery_orders where organization_id = ?",
+                Long.class, organizationId);
+    }
+
+    private long historyCount() {
+        return jdbcTemplate.queryForObject("select count(*) from delivery_orders_history where organization_id = ?",
+                Long.class, organizationId);
+    }
+}
@@ -0,0 +1,127 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.KeysetPage;
+import com.greenlink.dto.OrderSummary;
+import com.greenlink.model.Role;
+import com.greenlink.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Walks order pages cursor by cursor; several orders share a created_at so the id tie-break matters
+@SpringBootTest
+@Transactional
+class OrderKeysetPagingTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 5, 4, 9, 0);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID organizationId = UUID.randomUUID();
+
+    @BeforeEach
+    void signIn() {
+        AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "paging@test", organizationId, Role.DISPATCHER, 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+        // Another organization's orders must never show up
+        insertOrders(UUID.randomUUID(), 5, "UNASSIGNED");
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void pagesCoverEveryOrderOnceInKeyOrder() {
+        insertOrders(organizationId, 23, "UNASSIGNED");
+
+        List<UUID> seen = walk(null, 5);
+
+        assertThat(seen).hasSize(23).doesNotHaveDuplicates().containsExactlyElementsOf(expectedOrder(null));
+    }
+
+    @Test
+    void statusFilterAppliesAcrossPages() {
+        insertOrders(organizationId, 9, "UNASSIGNED");
+        insertOrders(organizationId, 7, "DELIVERED");
+
+        List<UUID> seen = walk("DELIVERED", 3);
+
+        assertThat(seen).containsExactlyElementsOf(expectedOrder("DELIVERED"));
+    }
+
+    @Test
+    void exactMultipleOfThePageSizeEndsWithoutAnEmptyPage() {
+        insertOrders(organizationId, 6, "UNASSIGNED");
+
+        KeysetPage<OrderSummary> first = orderService.getOrderPage(null, null, null, null, 3);
+        KeysetPage<OrderSummary> second = orderService.getOrderPage(null, null, null, first.getNextCursor(), 3);
+
+        assertThat(first.getItems()).hasSize(3);
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(second.getItems()).hasSize(3);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    private List<UUID> walk(String status, int pageSize) {
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<OrderSummary> page = orderService.getOrderPage(status, null, null, cursor, pageSize);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(pageSize);
+            page.getItems().forEach(order -> seen.add(order.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    // The database's own (created_at, id) order; Java's UUID comparison is signed and would differ
+    private List<UUID> expectedOrder(String status) {
+        return jdbcTemplate.queryForList(
+                """
+                select id from delivery_orders
+                where organization_id = ? and (?::varchar is null or status = ?)
+                order by created_at, id
+                """,
+                UUID.class,
+                organizationId,
+                status,
+                status
+        );
+    }
+
+    // Three orders per timestamp
+    private void insertOrders(UUID organization, int count, String status) {
+        jdbcTemplate.update(
+                """
+                insert into delivery_orders (id, organization_id, created_at, latitude, longitude, weight_kg,
+                                             service_duration_min, status)
+                select gen_random_uuid(), ?, ? + (n / 3) * interval '1 minute', 40.7, -74.0, 5, 10, ?
+                from generate_series(0, ? - 1) as n
+                """,
+                organization,
+                BASE,
+                status,
+                count
+        );
+    }
+}
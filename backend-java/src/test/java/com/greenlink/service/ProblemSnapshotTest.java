@@ -0,0 +1,83 @@
+package com.greenlink.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemSnapshotTest {
+
+    private final UUID order1 = UUID.randomUUID();
+    private final UUID order2 = UUID.randomUUID();
+    private final UUID vehicle = UUID.randomUUID();
+
+    @Test
+    void unchangedWhenEveryVersionMatches() {
+        ProblemSnapshot snapshot = snapshot();
+
+        assertThat(snapshot.unchangedIn(Map.of(order1, 1L, order2, 4L), Map.of(vehicle, 2L))).isTrue();
+    }
+
+    @Test
+    void extraRowsDoNotCountAsChanges() {
+        // Rows created after the snapshot are picked up by the next optimize, not this one
+        ProblemSnapshot snapshot = snapshot();
+
+        assertThat(snapshot.unchangedIn(
+                Map.of(order1, 1L, order2, 4L, UUID.randomUUID(), 1L),
+                Map.of(vehicle, 2L, UUID.randomUUID(), 1L)
+        )).isTrue();
+    }
+
+    @Test
+    void changedWhenAnOrderVersionMoved() {
+        ProblemSnapshot snapshot = snapshot();
+
+        assertThat(snapshot.unchangedIn(Map.of(order1, 1L, order2, 5L), Map.of(vehicle, 2L))).isFalse();
+    }
+
+    @Test
+    void changedWhenAVehicleVersionMoved() {
+        ProblemSnapshot snapshot = snapshot();
+
+        assertThat(snapshot.unchangedIn(Map.of(order1, 1L, order2, 4L), Map.of(vehicle, 3L))).isFalse();
+    }
+
+    @Test
+    void changedWhenARowIsGone() {
+        ProblemSnapshot snapshot = snapshot();
+
+        assertThat(snapshot.unchangedIn(Map.of(order1, 1L), Map.of(vehicle, 2L))).isFalse();
+        assertThat(snapshot.unchangedIn(Map.of(order1, 1L, order2, 4L), Map.of())).isFalse();
+    }
+
+    @Test
+    void keepsIdsAndGrowsPastInitialCapacity() {
+        ProblemSnapshot.OrderColumns orders = new ProblemSnapshot.OrderColumns();
+        UUID[] ids = new UUID[200];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+            orders.add(ids[i], 40.0, -74.0, i, 5, i);
+        }
+
+        ProblemSnapshot snapshot = new ProblemSnapshot(UUID.randomUUID(), orders, new ProblemSnapshot.VehicleColumns());
+
+        assertThat(snapshot.orderCount).isEqualTo(200);
+        assertThat(snapshot.orderIdHigh).hasSize(200);
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(snapshot.orderId(i)).isEqualTo(ids[i]);
+            assertThat(snapshot.orderWeightKg[i]).isEqualTo(i);
+        }
+    }
+
+    private ProblemSnapshot snapshot() {
+        ProblemSnapshot.OrderColumns orders = new ProblemSnapshot.OrderColumns();
+        orders.add(order1, 40.71, -74.00, 5, 10, 1);
+        orders.add(order2, 40.72, -74.01, 3, 10, 4);
+        ProblemSnapshot.VehicleColumns vehicles = new ProblemSnapshot.VehicleColumns();
+        vehicles.add(vehicle, 100, 40.70, -74.00, 2);
+        return new ProblemSnapshot(UUID.randomUUID(), orders, vehicles);
+    }
+}
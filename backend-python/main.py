@@ -3,6 +3,7 @@ from pydantic import BaseModel, Field, ConfigDict
 from typing import List, Optional
 import solver
 import json
+import time
 
 app = FastAPI()
 
@@ -47,13 +48,17 @@ class Vehicle(BaseModel):
     model_config = ConfigDict(extra="allow", populate_by_name=True)
 
 class RouteRequest(BaseModel):
-    # This matches your RouteRequest.java fields exactly
+    # Matches the payload RoutingService.solverRequest writes
     orders: List[Order]
     vehicles: List[Vehicle]
     model_config = ConfigDict(extra="allow")
 
 @app.post("/solve")
-def solve(data: RouteRequest):
+def solve(data: RouteRequest, request: Request):
+    # The backend sends how long it will wait; stop instead of finishing a plan nobody reads
+    budget_ms = request.headers.get("x-time-budget-ms")
+    deadline = time.monotonic() + int(budget_ms) / 1000 if budget_ms else None
+
     try:
         print(f"--- Received request with {len(data.orders)} orders and {len(data.vehicles)} vehicles ---")
 
@@ -65,13 +70,17 @@ def solve(data: RouteRequest):
         print(f"Vehicles: {len(vehicles_list)}")
 
         # 2. Call solver.py
-        result = solver.solve_multi_vehicle(orders_list, vehicles_list)
+        result = solver.solve_multi_vehicle(orders_list, vehicles_list, deadline)
 
         print(f"--- Optimization complete: {len(result)} routes ---")
 
         # 3. Return multi-route structure
         return {"routes": result}
 
+    except solver.DeadlineExceeded:
+        print(f"Solver Deadline: gave up after {budget_ms} ms")
+        raise HTTPException(status_code=504, detail="Time budget exceeded")
+
     except Exception as e:
         print(f"Solver Error: {e}")
         raise HTTPException(status_code=500, detail=str(e))
\ No newline at end of file
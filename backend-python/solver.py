@@ -1,10 +1,21 @@
 import math
+import time
 import requests # <--- New Library to talk to OSRM
-from typing import List, Dict
+from typing import List, Dict, Optional
 
 # Configuration: Pointing to your local Docker OSRM server
 OSRM_URL = "http://localhost:5000/route/v1/driving"
 
+class DeadlineExceeded(Exception):
+    """The caller's time budget (X-Time-Budget-Ms) ran out before a plan was ready."""
+
+
+def check_deadline(deadline: Optional[float]):
+    # deadline is a time.monotonic() value; None means no limit
+    if deadline is not None and time.monotonic() >= deadline:
+        raise DeadlineExceeded()
+
+
 def get_osrm_distance(lat1, lon1, lat2, lon2):
     """
     Calls the local OSRM server to get the real-world driving distance.
@@ -68,7 +79,7 @@ def solve_route(orders: List[Dict], vehicle: Dict):
     return route_path
 
 
-def solve_multi_vehicle(orders: List[Dict], vehicles: List[Dict]):
+def solve_multi_vehicle(orders: List[Dict], vehicles: List[Dict], deadline: Optional[float] = None):
     unassigned = orders.copy()
     routes = []
 
@@ -88,6 +99,7 @@ def solve_multi_vehicle(orders: List[Dict], vehicles: List[Dict]):
         })
 
     while unassigned:
+        check_deadline(deadline)
         best = None
         best_distance = float("inf")
 
@@ -128,6 +140,7 @@ def solve_multi_vehicle(orders: List[Dict], vehicles: List[Dict]):
         vehicle_route = []
 
         while unvisited:
+            check_deadline(deadline)
             nearest_order = None
             min_distance = float("inf")
 
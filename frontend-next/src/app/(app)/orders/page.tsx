@@ -2,14 +2,17 @@
 
 import { useEffect, useMemo, useState, type FormEvent } from "react";
 import { Order, Route, Vehicle } from "@/lib/types";
-import { fetchOrders, deleteOrder, createOrder, fetchRoutes } from "@/lib/api";
+import { fetchOrders, deleteOrder, createOrder, fetchRoutes, fetchVehicles } from "@/lib/api";
 import OrderTable from "@/components/orders/OrderTable";
 import { Plus } from "lucide-react";
 
 export default function OrdersPage() {
   const [orders, setOrders] = useState<Order[]>([]);
   const [routes, setRoutes] = useState<Route[]>([]);
+  const [vehicles, setVehicles] = useState<Vehicle[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | undefined>();
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [isCreateOpen, setIsCreateOpen] = useState(false);
   const [isSubmitting, setIsSubmitting] = useState(false);
   const [formError, setFormError] = useState<string | null>(null);
@@ -29,12 +32,15 @@ export default function OrdersPage() {
   const loadOrders = async () => {
     try {
       setLoading(true);
-      const [orderData, routeData] = await Promise.all([
+      const [orderPage, routeData, vehicleData] = await Promise.all([
         fetchOrders(),
         fetchRoutes(),
+        fetchVehicles(),
       ]);
-      setOrders(orderData);
+      setOrders(orderPage.orders);
+      setNextCursor(orderPage.nextCursor);
       setRoutes(routeData);
+      setVehicles(vehicleData);
     } catch (error) {
       console.error("Failed to load orders", error);
     } finally {
@@ -42,10 +48,24 @@ export default function OrdersPage() {
     }
   };
 
+  const handleLoadMore = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const orderPage = await fetchOrders(nextCursor);
+      setOrders((prev) => [...prev, ...orderPage.orders]);
+      setNextCursor(orderPage.nextCursor);
+    } catch (error) {
+      console.error("Failed to load more orders", error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const assignedVehicleByOrderId = useMemo(() => {
     const map = new Map<string, Vehicle>();
     for (const route of routes) {
-      const vehicle = route.vehicle;
+      const vehicle = route.vehicle ?? vehicles.find((item) => item.id === route.vehicleId);
       if (!vehicle) continue;
       const stops = route.orders || route.stops || [];
       for (const stop of stops) {
@@ -65,7 +85,7 @@ export default function OrdersPage() {
       }
     }
     return map;
-  }, [routes]);
+  }, [routes, vehicles]);
 
   const handleDelete = async (id: string) => {
     if (!confirm("Are you sure you want to delete this order?")) return;
@@ -174,11 +194,24 @@ export default function OrdersPage() {
       {loading ? (
         <div className="text-center py-12 text-slate-500">Loading orders...</div>
       ) : (
-        <OrderTable
-          orders={orders}
-          onDelete={handleDelete}
-          assignedVehicleByOrderId={assignedVehicleByOrderId}
-        />
+        <>
+          <OrderTable
+            orders={orders}
+            onDelete={handleDelete}
+            assignedVehicleByOrderId={assignedVehicleByOrderId}
+          />
+          {nextCursor ? (
+            <div className="flex justify-center">
+              <button
+                onClick={handleLoadMore}
+                disabled={loadingMore}
+                className="rounded-lg border border-slate-200 px-4 py-2 text-sm font-medium text-slate-600 hover:bg-slate-100"
+              >
+                {loadingMore ? "Loading..." : "Load more"}
+              </button>
+            </div>
+          ) : null}
+        </>
       )}
 
       {isCreateOpen ? (
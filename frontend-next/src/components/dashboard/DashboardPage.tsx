@@ -2,8 +2,8 @@
 
 import OrderList from "@/components/dashboard/OrderList";
 import { Order, Route, Vehicle } from "@/lib/types";
-import { fetchOrders, fetchVehicles, fetchRoutes, optimizeRoutes } from "@/lib/api";
-import { useState, useEffect, useCallback } from "react";
+import { fetchOrders, fetchVehicles, fetchRoutes, optimizeRoutes, ORDER_PAGE_SIZE } from "@/lib/api";
+import { useState, useEffect, useCallback, useRef } from "react";
 import { Zap, RefreshCw } from "lucide-react";
 import dynamic from "next/dynamic";
 import clsx from "clsx";
@@ -19,6 +19,10 @@ const Map = dynamic(() => import("@/components/dashboard/Map"), {
 
 export default function DashboardPage() {
   const [orders, setOrders] = useState<Order[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | undefined>();
+  const [loadingMore, setLoadingMore] = useState(false);
+  // Live refreshes re-read as many orders as the dispatcher has paged in, not the whole backlog
+  const loadedOrderCount = useRef(0);
   const [routes, setRoutes] = useState<Route[]>([]);
   const [vehicles, setVehicles] = useState<Vehicle[]>([]);
   const [loading, setLoading] = useState(true);
@@ -37,12 +41,15 @@ export default function DashboardPage() {
       if (!silent) {
         setLoading(true);
       }
-      const [orderData, vehicleData, routeData] = await Promise.all([
-        fetchOrders(),
+      const orderLimit = silent ? Math.max(loadedOrderCount.current, ORDER_PAGE_SIZE) : ORDER_PAGE_SIZE;
+      const [orderPage, vehicleData, routeData] = await Promise.all([
+        fetchOrders(undefined, orderLimit),
         fetchVehicles(),
         fetchRoutes(),
       ]);
-      setOrders(orderData);
+      loadedOrderCount.current = orderPage.orders.length;
+      setOrders(orderPage.orders);
+      setNextCursor(orderPage.nextCursor);
       setVehicles(vehicleData);
       setRoutes(routeData);
       setLastUpdated(new Date());
@@ -58,6 +65,21 @@ export default function DashboardPage() {
     }
   }, []);
 
+  const loadMoreOrders = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const orderPage = await fetchOrders(nextCursor);
+      loadedOrderCount.current += orderPage.orders.length;
+      setOrders((prev) => [...prev, ...orderPage.orders]);
+      setNextCursor(orderPage.nextCursor);
+    } catch (error) {
+      console.error("Failed to load more orders:", error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     setIsClient(true);
 
@@ -88,6 +110,8 @@ export default function DashboardPage() {
       setCurrentToken(token);
       // Clear previous user's data when token changes
       setOrders([]);
+      setNextCursor(undefined);
+      loadedOrderCount.current = 0;
       setVehicles([]);
       setRoutes([]);
       setLastUpdated(null);
@@ -200,7 +224,10 @@ export default function DashboardPage() {
       <div className="grid grid-cols-2 gap-3 rounded-xl border border-slate-200 bg-white p-4 shadow-sm md:grid-cols-4 xl:grid-cols-6">
         <div className="space-y-1 rounded-lg border border-slate-100 bg-slate-50 p-3">
           <p className="text-xs uppercase tracking-wide text-slate-500">Total Orders</p>
-          <p className="text-2xl font-semibold text-slate-900">{totalOrders}</p>
+          <p className="text-2xl font-semibold text-slate-900">
+            {totalOrders}
+            {nextCursor ? "+" : ""}
+          </p>
         </div>
         <div className="space-y-1 rounded-lg border border-amber-100 bg-amber-50 p-3">
           <p className="text-xs uppercase tracking-wide text-amber-600">Unassigned</p>
@@ -269,7 +296,12 @@ export default function DashboardPage() {
               Loading Orders...
             </div>
           ) : (
-            <OrderList orders={orders} />
+            <OrderList
+              orders={orders}
+              hasMore={Boolean(nextCursor)}
+              loadingMore={loadingMore}
+              onLoadMore={loadMoreOrders}
+            />
           )}
         </div>
         <div
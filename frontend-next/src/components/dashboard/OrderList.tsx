@@ -6,9 +6,12 @@ import clsx from "clsx";
 
 interface OrderListProps {
   orders: Order[];
+  hasMore?: boolean;
+  loadingMore?: boolean;
+  onLoadMore?: () => void;
 }
 
-export default function OrderList({ orders }: OrderListProps) {
+export default function OrderList({ orders, hasMore, loadingMore, onLoadMore }: OrderListProps) {
   return (
     <div className="bg-white rounded-lg shadow-sm border border-slate-200 flex flex-col h-full md:h-[600px]">
       {/* Header */}
@@ -19,6 +22,7 @@ export default function OrderList({ orders }: OrderListProps) {
         </h2>
         <span className="text-xs font-medium bg-slate-200 text-slate-600 px-2 py-1 rounded-full">
           {orders.length}
+          {hasMore ? "+" : ""}
         </span>
       </div>
 
@@ -62,6 +66,15 @@ export default function OrderList({ orders }: OrderListProps) {
             </div>
           ))
         )}
+        {hasMore && onLoadMore ? (
+          <button
+            onClick={onLoadMore}
+            disabled={loadingMore}
+            className="w-full rounded-lg border border-slate-200 py-2 text-sm font-medium text-slate-600 hover:bg-slate-100"
+          >
+            {loadingMore ? "Loading..." : "Load more"}
+          </button>
+        ) : null}
       </div>
     </div>
   );
@@ -72,7 +72,7 @@ export default function Sidebar() {
 
   const routeStatsByVehicleId = routes.reduce((acc, route) => {
     const vehicleId = route.vehicleId || route.vehicle?.id;
-    const orders = route.orders ?? [];
+    const orders = route.stops ?? route.orders ?? [];
     if (!vehicleId || orders.length === 0) {
       return acc;
     }
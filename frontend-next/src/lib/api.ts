@@ -1,5 +1,5 @@
 import axios from "axios";
-import { AccountProfile, Driver, Order, Route, Vehicle } from "./types";
+import { AccountProfile, Driver, Order, OrderPage, Route, Vehicle } from "./types";
 
 const apiRoot = (() => {
     if (typeof window !== "undefined") {
@@ -37,17 +37,32 @@ export const fetchVehicles = async (): Promise<Vehicle[]> => {
     return response.data;
 };
 
-export const fetchOrders = async (): Promise<Order[]> => {
-    const response = await apiClient.get<Order[]>('/orders');
-    return response.data;
+export const ORDER_PAGE_SIZE = 50;
+
+export const fetchOrders = async (cursor?: string, limit = ORDER_PAGE_SIZE): Promise<OrderPage> => {
+    // One keyset page; callers pass nextCursor back to load the following page on demand.
+    const response = await apiClient.get<Order[]>('/orders', {
+        params: { limit, cursor },
+    });
+    return {
+        orders: response.data,
+        nextCursor: response.headers['x-next-cursor'] || undefined,
+    };
 };
 
 export const fetchRoutes = async (): Promise<Route[]> => {
-    // Lets assume I have a GET /api/routes endpoint. 
-    // If not, I can create one in Java later, or just return empty for now.
+    // Route summaries are paged like orders; stops are only included on request.
     try {
-        const response = await apiClient.get<Route[]>('/routes');
-        return response.data;
+        const routes: Route[] = [];
+        let cursor: string | undefined;
+        do {
+            const response = await apiClient.get<Route[]>('/routes', {
+                params: { expand: 'stops', cursor },
+            });
+            routes.push(...response.data);
+            cursor = response.headers['x-next-cursor'] || undefined;
+        } while (cursor);
+        return routes;
     } catch (error) {
         console.warn("Could not fetch routes", error);
         return [];
@@ -12,6 +12,11 @@ export interface Order {
   routeId?: string; // From V3
 }
 
+export interface OrderPage {
+  orders: Order[];
+  nextCursor?: string; // From the X-Next-Cursor header; absent on the last page
+}
+
 export interface Vehicle {
   id: string;
   organizationId: string; // From V1
@@ -28,10 +33,13 @@ export interface Vehicle {
 
 export interface Route {
   id: string;
-  organizationId: string; // From V3
+  organizationId?: string; // From V3 (not included in route summaries)
   vehicleId?: string;
+  vehicleName?: string;
   vehicle?: Vehicle;
   status: string; // V3 defines this as VARCHAR(50)
+  stopCount?: number;
+  totalWeightKg?: number;
   stops?: RouteStop[]; // Virtual field (list of orders in this route)
   orders?: RouteStop[]; // Optional field to hold assigned orders for easier access in the frontend
   // totalDistanceMeters?: number; // To be considered in the future, but not currently defined in V3 SQL